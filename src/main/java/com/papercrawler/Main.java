@@ -2,6 +2,8 @@ package com.papercrawler;
 
 import com.papercrawler.config.CrawlerConfig;
 import com.papercrawler.model.Paper;
+import com.papercrawler.network.ConnectionPool;
+import com.papercrawler.network.NetworkTimings;
 import com.papercrawler.parser.PaperParser;
 import com.papercrawler.parser.ArxivParser;
 import com.papercrawler.parser.BiorxivParser;
@@ -10,6 +12,7 @@ import com.papercrawler.scheduler.Scheduler;
 import com.papercrawler.scheduler.ThreadScheduler;
 import com.papercrawler.scheduler.AsyncScheduler;
 import com.papercrawler.scheduler.DistributedScheduler;
+import com.papercrawler.scheduler.VirtualThreadScheduler;
 import com.papercrawler.storage.DataStorage;
 import com.papercrawler.storage.FileStorage;
 import com.papercrawler.storage.DatabaseStorage;
@@ -29,6 +32,20 @@ public class Main {
             System.out.println("Loading configuration...");
             CrawlerConfig.loadConfig("config/config.toml");
 
+            // 提前解析各数据源主机并预热连接池，在第一批请求前完成DNS、TCP和TLS握手
+            // async模式和HTTP/2使用java.net.http引擎，不经过该连接池和DNS缓存
+            if (usesConnectionPool()) {
+                ConnectionPool connectionPool = ConnectionPool.getInstance();
+                System.out.println("Resolving source hosts...");
+                System.out.printf("DNS cache ready: %d hosts resolved%n", connectionPool.resolveHosts());
+                int warmupConnections = CrawlerConfig.getPoolWarmupConnections();
+                if (warmupConnections > 0) {
+                    System.out.println("Warming up connection pool...");
+                    int opened = connectionPool.warmUp(warmupConnections);
+                    System.out.printf("Connection pool ready: %d connections opened%n", opened);
+                }
+            }
+
             // 初始化数据存储
             System.out.println("Initializing data storage...");
             DataStorage storage = createStorage();
@@ -49,6 +66,12 @@ public class Main {
             // 关闭存储
             storage.close();
 
+            // 输出各主机请求阶段耗时和最慢的请求
+            NetworkTimings timings = NetworkTimings.getInstance();
+            if (timings.isEnabled()) {
+                System.out.println("\n" + timings.getReport());
+            }
+
             System.out.println("\n==========================================");
             System.out.println("   Crawling completed successfully!");
             System.out.println("==========================================");
@@ -60,6 +83,13 @@ public class Main {
         }
     }
 
+    /**
+     * 同步调度器在HTTP/1.1下通过Apache传输发送请求，使用共享连接池
+     */
+    private static boolean usesConnectionPool() {
+        return !CrawlerConfig.isHttp2Enabled() && !"async".equalsIgnoreCase(CrawlerConfig.getCrawlerMode());
+    }
+
     private static DataStorage createStorage() {
         if (CrawlerConfig.isDatabaseEnabled()) {
             return new DatabaseStorage();
@@ -155,6 +185,9 @@ public class Main {
             case "distributed":
                 return new DistributedScheduler(parser);
 
+            case "virtual":
+                return new VirtualThreadScheduler(parser);
+
             default:
                 throw new IllegalArgumentException("Unknown scheduler mode: " + mode);
         }
@@ -207,7 +207,8 @@ public class AppConfig {
     private static boolean isValidMode(String mode) {
         return "thread".equalsIgnoreCase(mode) ||
                 "async".equalsIgnoreCase(mode) ||
-                "distributed".equalsIgnoreCase(mode);
+                "distributed".equalsIgnoreCase(mode) ||
+                "virtual".equalsIgnoreCase(mode);
     }
 
     private static boolean isValidOutputFormat(String format) {
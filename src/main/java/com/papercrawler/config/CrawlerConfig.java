@@ -1,9 +1,11 @@
 package com.papercrawler.config;
 
 import com.moandjiezana.toml.Toml;
+import com.papercrawler.util.VirtualThreads;
 
 import java.io.File;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
@@ -47,9 +49,20 @@ public class CrawlerConfig {
 
         // 验证模式值
         String mode = getCrawlerMode().toLowerCase();
-        if (!mode.equals("thread") && !mode.equals("async") && !mode.equals("distributed")) {
+        if (!mode.equals("thread") && !mode.equals("async") && !mode.equals("distributed")
+                && !mode.equals("virtual")) {
             throw new RuntimeException("Invalid crawler mode: " + mode);
         }
+        if (mode.equals("virtual") && !VirtualThreads.isSupported()) {
+            throw new RuntimeException("Crawler mode 'virtual' requires Java 21 or later, running on Java "
+                    + System.getProperty("java.version"));
+        }
+
+        // 验证HTTP协议版本
+        String httpVersion = getHttpVersion().toLowerCase();
+        if (!httpVersion.equals("http1.1") && !httpVersion.equals("http2")) {
+            throw new RuntimeException("Invalid HTTP version: " + httpVersion);
+        }
     }
 
     // 爬虫配置
@@ -57,6 +70,10 @@ public class CrawlerConfig {
         return tomlConfig.getString("crawler.mode", "thread");
     }
 
+    public static boolean isVirtualThreadMode() {
+        return "virtual".equalsIgnoreCase(getCrawlerMode());
+    }
+
     public static int getMaxConnections() {
         return tomlConfig.getLong("crawler.max_connections", 20L).intValue();
     }
@@ -69,10 +86,38 @@ public class CrawlerConfig {
         return tomlConfig.getLong("crawler.retry_attempts", 3L).intValue();
     }
 
+    public static long getRetryBaseDelayMillis() {
+        return tomlConfig.getLong("crawler.retry_base_delay_ms", 1000L);
+    }
+
+    public static long getRetryMaxDelayMillis() {
+        return tomlConfig.getLong("crawler.retry_max_delay_ms", 30000L);
+    }
+
+    public static double getRetryBudgetRatio() {
+        return tomlConfig.getDouble("crawler.retry_budget_ratio", 0.2);
+    }
+
+    public static double getRetryBudgetMinPerSecond() {
+        return tomlConfig.getDouble("crawler.retry_budget_min_per_second", 1.0);
+    }
+
+    public static long getCoalesceTtlMillis() {
+        return tomlConfig.getLong("crawler.coalesce_ttl_ms", 0L);
+    }
+
     public static double getDelayBetweenRequests() {
         return tomlConfig.getDouble("crawler.delay_between_requests", 1.0);
     }
 
+    public static String getHttpVersion() {
+        return tomlConfig.getString("crawler.http_version", "http1.1");
+    }
+
+    public static boolean isHttp2Enabled() {
+        return "http2".equalsIgnoreCase(getHttpVersion());
+    }
+
     public static String getUserAgent() {
         return tomlConfig.getString("crawler.user_agent", "AcademicPaperCrawler/1.0");
     }
@@ -81,6 +126,17 @@ public class CrawlerConfig {
         return tomlConfig.getString("crawler.log_level", "INFO");
     }
 
+    // 限流配置，source为数据源配置段名称（arxiv、biorxiv、chemrxiv），未配置时按请求间隔换算
+    public static double getRequestsPerSecond(String source) {
+        double delay = getDelayBetweenRequests();
+        double defaultRate = delay > 0 ? 1.0 / delay : 0;
+        return tomlConfig.getDouble(source + ".requests_per_second", defaultRate);
+    }
+
+    public static int getRateLimitBurst(String source) {
+        return tomlConfig.getLong(source + ".burst", 1L).intValue();
+    }
+
     // 存储配置
     public static String getOutputDir() {
         return tomlConfig.getString("storage.output_dir", "./data");
@@ -102,6 +158,178 @@ public class CrawlerConfig {
         return tomlConfig.getBoolean("storage.database_enabled", false);
     }
 
+    // 连接池配置，所有调度器和数据源共享同一个连接池
+    public static int getPoolMaxTotal() {
+        return tomlConfig.getLong("pool.max_total", (long) getMaxConnections()).intValue();
+    }
+
+    public static int getPoolMaxPerRoute(String source) {
+        long defaultPerRoute = tomlConfig.getLong("pool.max_per_route", (long) getMaxConnections());
+        return tomlConfig.getLong(source + ".max_connections", defaultPerRoute).intValue();
+    }
+
+    public static long getPoolConnectionTtlSeconds() {
+        return tomlConfig.getLong("pool.connection_ttl_seconds", 300L);
+    }
+
+    public static long getPoolIdleTimeoutSeconds() {
+        return tomlConfig.getLong("pool.idle_timeout_seconds", 30L);
+    }
+
+    public static int getPoolValidateAfterInactivityMillis() {
+        return tomlConfig.getLong("pool.validate_after_inactivity_ms", 2000L).intValue();
+    }
+
+    public static int getPoolWarmupConnections() {
+        return tomlConfig.getLong("pool.warmup_connections", 0L).intValue();
+    }
+
+    public static String getRateLimiterBackend() {
+        return tomlConfig.getString("rate_limiter.backend", "local");
+    }
+
+    public static String getRateLimiterSharedFile() {
+        return tomlConfig.getString("rate_limiter.shared_file", getOutputDir() + "/.rate-limiter");
+    }
+
+    public static boolean isBufferPoolEnabled() {
+        return tomlConfig.getBoolean("buffer_pool.enabled", true);
+    }
+
+    public static long getBufferPoolMaxPooledMb() {
+        return tomlConfig.getLong("buffer_pool.max_pooled_mb", 64L);
+    }
+
+    public static boolean isHedgingEnabled() {
+        return tomlConfig.getBoolean("hedge.enabled", false);
+    }
+
+    public static double getHedgeQuantile() {
+        return tomlConfig.getDouble("hedge.percentile", 0.95);
+    }
+
+    public static double getHedgeBudgetRatio() {
+        return tomlConfig.getDouble("hedge.budget_ratio", 0.05);
+    }
+
+    public static long getHedgeMinSamples() {
+        return tomlConfig.getLong("hedge.min_samples", 20L);
+    }
+
+    public static long getHedgeMinDelayMillis() {
+        return tomlConfig.getLong("hedge.min_delay_ms", 100L);
+    }
+
+    public static boolean isTimingEnabled() {
+        return tomlConfig.getBoolean("timing.enabled", true);
+    }
+
+    // 保留的最慢请求条数，0表示不记录
+    public static int getTimingSlowLogSize() {
+        return tomlConfig.getLong("timing.slow_log_size", 20L).intValue();
+    }
+
+    // 解析线程数，0或负数时取CPU核数
+    public static int getParseThreads() {
+        int threads = tomlConfig.getLong("parse.threads", 0L).intValue();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    public static int getParseQueueSize() {
+        return tomlConfig.getLong("parse.queue_size", 32L).intValue();
+    }
+
+    public static long getDnsCacheTtlSeconds() {
+        return tomlConfig.getLong("dns.cache_ttl_seconds", 300L);
+    }
+
+    public static long getDnsStaleTtlSeconds() {
+        return tomlConfig.getLong("dns.stale_ttl_seconds", 600L);
+    }
+
+    // 自适应并发配置，按数据源根据延迟和限流信号调整同时在途的请求数
+    public static boolean isAdaptiveConcurrencyEnabled() {
+        return tomlConfig.getBoolean("concurrency.enabled", true);
+    }
+
+    public static int getConcurrencyInitialLimit() {
+        return tomlConfig.getLong("concurrency.initial_limit", 4L).intValue();
+    }
+
+    public static int getConcurrencyMinLimit() {
+        return tomlConfig.getLong("concurrency.min_limit", 1L).intValue();
+    }
+
+    public static int getConcurrencyMaxLimit() {
+        return tomlConfig.getLong("concurrency.max_limit", (long) getMaxConnections()).intValue();
+    }
+
+    public static double getConcurrencyRttTolerance() {
+        return tomlConfig.getDouble("concurrency.rtt_tolerance", 2.0);
+    }
+
+    public static double getConcurrencyBackoffRatio() {
+        return tomlConfig.getDouble("concurrency.backoff_ratio", 0.5);
+    }
+
+    // HTTP缓存配置
+    public static boolean isHttpCacheEnabled() {
+        return tomlConfig.getBoolean("cache.enabled", false);
+    }
+
+    public static String getHttpCacheDir() {
+        return tomlConfig.getString("cache.dir", getOutputDir() + "/http-cache");
+    }
+
+    public static int getHttpCacheMaxSizeMB() {
+        return tomlConfig.getLong("cache.max_size_mb", 512L).intValue();
+    }
+
+    // 熔断器配置
+    public static boolean isCircuitBreakerEnabled() {
+        return tomlConfig.getBoolean("circuit_breaker.enabled", true);
+    }
+
+    public static int getCircuitBreakerWindowSize() {
+        return tomlConfig.getLong("circuit_breaker.window_size", 20L).intValue();
+    }
+
+    public static int getCircuitBreakerMinimumCalls() {
+        return tomlConfig.getLong("circuit_breaker.minimum_calls", 10L).intValue();
+    }
+
+    public static double getCircuitBreakerFailureRateThreshold() {
+        return tomlConfig.getDouble("circuit_breaker.failure_rate_threshold", 0.5);
+    }
+
+    public static long getCircuitBreakerSlowCallMillis() {
+        return tomlConfig.getLong("circuit_breaker.slow_call_ms", 10000L);
+    }
+
+    public static double getCircuitBreakerSlowCallRateThreshold() {
+        return tomlConfig.getDouble("circuit_breaker.slow_call_rate_threshold", 0.8);
+    }
+
+    public static long getCircuitBreakerOpenMillis() {
+        return tomlConfig.getLong("circuit_breaker.open_duration_ms", 30000L);
+    }
+
+    public static int getCircuitBreakerHalfOpenProbes() {
+        return tomlConfig.getLong("circuit_breaker.half_open_probes", 3L).intValue();
+    }
+
+    /**
+     * 数据源的镜像端点，与base_url等价，未配置时为空
+     */
+    public static List<String> getMirrorUrls(String source) {
+        List<String> mirrors = tomlConfig.getList(source + ".mirrors");
+        return mirrors != null ? mirrors : new ArrayList<>();
+    }
+
+    public static double getEndpointExplorationRate() {
+        return tomlConfig.getDouble("crawler.endpoint_exploration_rate", 0.05);
+    }
+
     // arXiv配置
     public static String getArxivBaseUrl() {
         return tomlConfig.getString("arxiv.base_url");
@@ -127,6 +355,11 @@ public class CrawlerConfig {
         return tomlConfig.getString("arxiv.sort_order", "descending");
     }
 
+    // arXiv响应的解析方式：stax（流式）或jsoup（完整DOM）
+    public static String getArxivParser() {
+        return tomlConfig.getString("arxiv.parser", "stax");
+    }
+
     // bioRxiv配置
     public static String getBiorxivBaseUrl() {
         return tomlConfig.getString("biorxiv.base_url", "https://api.biorxiv.org/details/biorxiv");
@@ -196,4 +429,28 @@ public class CrawlerConfig {
     public static String getProxyPassword() {
         return tomlConfig.getString("proxy.password", "");
     }
+
+    // 代理池，每个[[proxy.pool]]条目包含host、port，可选username、password、weight
+    public static List<Map<String, Object>> getProxyPool() {
+        List<Toml> tables = tomlConfig.getTables("proxy.pool");
+        List<Map<String, Object>> pool = new ArrayList<>();
+        if (tables != null) {
+            for (Toml table : tables) {
+                pool.add(table.toMap());
+            }
+        }
+        return pool;
+    }
+
+    public static int getProxyEjectAfterFailures() {
+        return tomlConfig.getLong("proxy.eject_after_failures", 5L).intValue();
+    }
+
+    public static double getProxyMaxErrorRate() {
+        return tomlConfig.getDouble("proxy.max_error_rate", 0.5);
+    }
+
+    public static long getProxyEjectionSeconds() {
+        return tomlConfig.getLong("proxy.ejection_seconds", 30L);
+    }
 }
\ No newline at end of file
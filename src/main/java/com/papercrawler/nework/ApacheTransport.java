@@ -0,0 +1,151 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.auth.AuthScope;
+import org.apache.http.auth.UsernamePasswordCredentials;
+import org.apache.http.client.CredentialsProvider;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpEntityEnclosingRequestBase;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.BasicCredentialsProvider;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Apache HttpClient的HTTP/1.1传输，使用进程内共享的连接池
+ */
+public class ApacheTransport implements HttpTransport {
+    private final CloseableHttpClient httpClient;
+    private final RequestConfig requestConfig;
+    private final ConnectionPool connectionPool = ConnectionPool.getInstance();
+
+    public ApacheTransport() {
+        this.requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(CrawlerConfig.getRequestTimeout()))
+                .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(CrawlerConfig.getRequestTimeout()))
+                .setConnectionRequestTimeout((int) TimeUnit.SECONDS.toMillis(CrawlerConfig.getRequestTimeout()))
+                .build();
+
+        // 使用进程内共享的连接池，关闭客户端时不关闭连接池，保留已建立的连接
+        this.httpClient = HttpClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setUserAgent(CrawlerConfig.getUserAgent())
+                .setConnectionManager(connectionPool.getConnectionManager())
+                .setConnectionManagerShared(true)
+                .setKeepAliveStrategy(connectionPool.keepAliveStrategy())
+                .setDefaultCredentialsProvider(proxyCredentials())
+                // 由ContentDecoding负责压缩协商和流式解压，以便统计传输字节
+                .disableContentCompression()
+                .build();
+    }
+
+    @Override
+    public Call newCall(String method, String url, Map<String, String> headers, String body,
+                        ProxyPool.Proxy proxy) {
+        HttpRequestBase request = "POST".equals(method) ? new HttpPost(url) : new HttpGet(url);
+        // 经代理的请求使用独立的路由，连接池按“目标主机+代理”分别维护连接
+        request.setConfig(proxy == null ? requestConfig
+                : RequestConfig.copy(requestConfig).setProxy(new HttpHost(proxy.getHost(), proxy.getPort())).build());
+        headers.forEach(request::setHeader);
+
+        if (body != null && !body.isEmpty() && request instanceof HttpEntityEnclosingRequestBase) {
+            ((HttpEntityEnclosingRequestBase) request).setEntity(new StringEntity(body, "UTF-8"));
+        }
+
+        return new Call() {
+            @Override
+            public Exchange execute() throws IOException {
+                return new ApacheExchange(httpClient.execute(request));
+            }
+
+            @Override
+            public void cancel() {
+                // 中止请求会关闭底层连接，该连接不再放回连接池
+                request.abort();
+            }
+        };
+    }
+
+    /**
+     * 代理池中配置了用户名的代理使用Basic认证
+     */
+    private static CredentialsProvider proxyCredentials() {
+        CredentialsProvider credentials = new BasicCredentialsProvider();
+        for (ProxyPool.Proxy proxy : ProxyPool.getInstance().getProxies()) {
+            if (proxy.hasCredentials()) {
+                credentials.setCredentials(new AuthScope(proxy.getHost(), proxy.getPort()),
+                        new UsernamePasswordCredentials(proxy.getUsername(), proxy.getPassword()));
+            }
+        }
+        return credentials;
+    }
+
+    @Override
+    public String getStatus() {
+        return "Transport: HTTP/1.1, " + connectionPool.getStatus();
+    }
+
+    @Override
+    public void close() throws IOException {
+        httpClient.close();
+    }
+
+    private static class ApacheExchange implements Exchange {
+        private final CloseableHttpResponse response;
+
+        ApacheExchange(CloseableHttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.getStatusLine().getStatusCode();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            Header header = response.getFirstHeader(name);
+            return header != null ? header.getValue() : null;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            HttpEntity entity = response.getEntity();
+            return entity != null ? entity.getContent() : new ByteArrayInputStream(new byte[0]);
+        }
+
+        /**
+         * 直接关闭连接，响应体较大时比读完再复用更快
+         */
+        @Override
+        public void discard() throws IOException {
+            response.close();
+        }
+
+        /**
+         * 读完剩余响应体后关闭，使连接可以放回连接池复用
+         */
+        @Override
+        public void close() throws IOException {
+            try {
+                EntityUtils.consume(response.getEntity());
+            } finally {
+                response.close();
+            }
+        }
+    }
+}
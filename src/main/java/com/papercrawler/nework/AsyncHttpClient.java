@@ -1,40 +1,330 @@
 package com.papercrawler.network;
 
+import com.papercrawler.config.CrawlerConfig;
+
+import javax.net.ssl.SSLSession;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.Optional;
+import java.util.concurrent.Flow;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
 
+/**
+ * 基于JDK java.net.http异步I/O的非阻塞HTTP客户端
+ * 请求在途期间不占用线程，线程池只负责执行回调
+ */
 public class AsyncHttpClient {
-    private final HttpClient httpClient;
+    // 进程内共享，相同URL的并发GET请求共享同一个在途Future
+    private static final SingleFlight<String, Optional<String>> IN_FLIGHT =
+            new SingleFlight<>(CrawlerConfig.getCoalesceTtlMillis(), Optional::isPresent);
+
+    private final java.net.http.HttpClient httpClient;
     private final ExecutorService executorService;
+    private final boolean ownsEngine;
+    private final Duration requestTimeout = Duration.ofSeconds(CrawlerConfig.getRequestTimeout());
+    private final HostRateLimiter rateLimiter = HostRateLimiter.getInstance();
+    private final HttpCache httpCache = HttpCache.getInstance();
+    private final RetryPolicy retryPolicy = RetryPolicy.getInstance();
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.getInstance();
+    private final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.getInstance();
+    private final HedgePolicy hedgePolicy = HedgePolicy.getInstance();
+    private final EndpointSelector endpointSelector = EndpointSelector.getInstance();
 
+    /**
+     * 使用进程内共享的异步引擎，所有实例复用同一组连接
+     */
     public AsyncHttpClient() {
-        this.httpClient = new HttpClient();
-        this.executorService = Executors.newCachedThreadPool();
+        this.httpClient = JdkHttpEngine.shared();
+        this.executorService = JdkHttpEngine.sharedExecutor();
+        this.ownsEngine = false;
     }
 
+    /**
+     * 使用独立的回调线程池和连接，关闭时一并释放
+     */
     public AsyncHttpClient(int threadPoolSize) {
-        this.httpClient = new HttpClient();
-        this.executorService = Executors.newFixedThreadPool(threadPoolSize);
+        this.executorService = JdkHttpEngine.newCallbackExecutor(threadPoolSize);
+        this.httpClient = JdkHttpEngine.create(executorService);
+        this.ownsEngine = true;
+    }
+
+    /**
+     * 获取自适应并发许可后再执行GET请求，请求结束（含重试）后释放许可
+     */
+    public CompletableFuture<Optional<String>> getAsyncLimited(String url) {
+        return concurrencyLimiter.acquireAsync(url)
+                .thenCompose(permit -> getAsync(url).whenComplete((content, error) -> permit.release()));
     }
 
     /**
      * 异步执行GET请求
      */
     public CompletableFuture<Optional<String>> getAsync(String url) {
-        return CompletableFuture.supplyAsync(() -> httpClient.get(url), executorService);
+        return IN_FLIGHT.execute(url, () -> fetchAsync(url));
+    }
+
+    private CompletableFuture<Optional<String>> fetchAsync(String url) {
+        URI uri = parseUri(url);
+        if (uri == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        // 每次尝试重新构建请求，以便使用最新的缓存校验信息，并发往当前最优的镜像端点
+        RequestFactory requestFactory = conditional -> {
+            HttpRequest.Builder builder = newRequestBuilder(URI.create(endpointSelector.route(uri.toString())))
+                    .header("Accept", "application/json,application/xml,text/xml,text/html")
+                    .header("Accept-Charset", "UTF-8")
+                    .header("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING)
+                    .GET();
+            if (conditional) {
+                httpCache.addValidators(url, builder::header);
+            }
+            return builder.build();
+        };
+        retryPolicy.onRequest();
+        return executeWithRetry(url, requestFactory, 0, true, statusCode -> statusCode == 200);
     }
 
     /**
      * 异步执行POST请求
      */
     public CompletableFuture<Optional<String>> postAsync(String url, String body) {
-        return CompletableFuture.supplyAsync(() -> httpClient.post(url, body), executorService);
+        URI uri = parseUri(url);
+        if (uri == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        HttpRequest.BodyPublisher publisher = body != null && !body.isEmpty()
+                ? HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8)
+                : HttpRequest.BodyPublishers.noBody();
+        HttpRequest request = newRequestBuilder(uri)
+                .header("Content-Type", "application/json")
+                .header("Accept", "application/json")
+                .header("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING)
+                .POST(publisher)
+                .build();
+        retryPolicy.onRequest();
+        return executeWithRetry(url, conditional -> request, 0, false,
+                statusCode -> statusCode == 200 || statusCode == 201);
+    }
+
+    /**
+     * 带重试机制的异步请求，退避等待由RetryPolicy的定时器驱动，不阻塞线程
+     *
+     * @param conditional 是否附带缓存校验头；304后缓存丢失时改为false重新请求
+     */
+    private CompletableFuture<Optional<String>> executeWithRetry(String url, RequestFactory requestFactory,
+                                                                 int retryCount, boolean conditional,
+                                                                 IntPredicate isSuccess) {
+        if (retryCount >= CrawlerConfig.getRetryAttempts()) {
+            System.err.println("Max retry attempts reached for URL: " + url);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return attempt(url, requestFactory, requestFactory.create(conditional), retryCount, conditional, isSuccess);
+    }
+
+    /**
+     * 发出一次已构建好的请求，按响应决定返回、重新请求或延迟重试
+     */
+    private CompletableFuture<Optional<String>> attempt(String url, RequestFactory requestFactory,
+                                                        HttpRequest request, int retryCount, boolean conditional,
+                                                        IntPredicate isSuccess) {
+        String target = request.uri().toString();
+        // 熔断打开时快速失败，不再等待限流
+        if (circuitBreaker.isOpen(target)) {
+            System.err.println("Circuit open for host " + SourceHosts.hostOf(target) + ", skipping URL: " + target);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+
+        return rateLimiter.acquire(target)
+                .thenCompose(v -> {
+                    // 限流等待结束后才占用熔断许可，等待期间失败或被取消时不会留下半开探测名额
+                    if (!circuitBreaker.tryAcquire(target)) {
+                        System.err.println("Circuit open for host " + SourceHosts.hostOf(target) + ", skipping URL: " + target);
+                        return CompletableFuture.<HttpResponse<String>>completedFuture(null);
+                    }
+                    return sendAndRecord(target, request);
+                })
+                .handle((response, error) -> {
+                    if (error != null) {
+                        System.err.println("Error executing request for URL: " + target + " - " + error.getMessage());
+                        // 网络错误，重试
+                        return retryLater(url, requestFactory, retryCount, 0, conditional, isSuccess);
+                    }
+                    if (response == null) {
+                        // 熔断打开，请求未发出
+                        return CompletableFuture.completedFuture(Optional.<String>empty());
+                    }
+
+                    int statusCode = response.statusCode();
+                    long retryAfterMillis = rateLimiter.onResponse(target, statusCode,
+                            name -> response.headers().firstValue(name).orElse(null));
+
+                    if (isSuccess.test(statusCode)) {
+                        if ("GET".equals(response.request().method())) {
+                            httpCache.store(url, response.headers().firstValue("ETag").orElse(null),
+                                    response.headers().firstValue("Last-Modified").orElse(null), response.body());
+                        }
+                        return CompletableFuture.completedFuture(Optional.of(response.body()));
+                    } else if (statusCode == 304) {
+                        // 内容未变化，直接使用缓存；缓存丢失时不带校验头立即重新请求，不计入重试次数也不消耗重试预算
+                        Optional<String> cached = httpCache.readBody(url);
+                        if (cached.isPresent()) {
+                            return CompletableFuture.completedFuture(cached);
+                        }
+                        if (conditional) {
+                            return executeWithRetry(url, requestFactory, retryCount, false, isSuccess);
+                        }
+                        return retryLater(url, requestFactory, retryCount, retryAfterMillis, false, isSuccess);
+                    } else if (statusCode == 429 || (statusCode >= 500 && statusCode < 600)) {
+                        // 服务器错误或被限流，重试
+                        System.err.println("Server error " + statusCode + " for URL: " + target + ", retrying...");
+                        return retryLater(url, requestFactory, retryCount, retryAfterMillis, conditional, isSuccess);
+                    } else {
+                        System.err.println("HTTP request failed with status code: " + statusCode + " for URL: " + target);
+                        return CompletableFuture.completedFuture(Optional.<String>empty());
+                    }
+                })
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * 发送请求并将结果计入统计；请求未能发出时归还熔断器的半开探测名额
+     */
+    private CompletableFuture<HttpResponse<String>> sendAndRecord(String target, HttpRequest request) {
+        long startNanos = System.nanoTime();
+        try {
+            return send(target, request)
+                    .whenComplete((response, error) -> recordOutcome(target, response, error, startNanos));
+        } catch (RuntimeException e) {
+            circuitBreaker.release(target);
+            throw e;
+        }
+    }
+
+    /**
+     * 发送请求，启用对冲时GET请求超过主机的延迟分位数仍未完成会再发一次，取先完成的结果
+     */
+    private CompletableFuture<HttpResponse<String>> send(String url, HttpRequest request) {
+        if (!"GET".equals(request.method())) {
+            return sendDecoded(url, request);
+        }
+        return hedgePolicy.hedge(url, () -> sendDecoded(url, request));
+    }
+
+    /**
+     * 响应头到达后在解码线程上边接收边解压，不先缓存完整的压缩响应体
+     */
+    private CompletableFuture<HttpResponse<String>> sendDecoded(String url, HttpRequest request) {
+        CompletableFuture<HttpResponse<InputStream>> sent =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<HttpResponse<String>> decoded =
+                sent.thenApplyAsync(response -> decode(url, response), JdkHttpEngine.decodeExecutor());
+        decoded.whenComplete((response, error) -> {
+            if (decoded.isCancelled()) {
+                // 对冲落败被取消时解码任务不会执行，需关闭已到达的响应体以释放连接
+                sent.cancel(true);
+                sent.thenAccept(AsyncHttpClient::discard);
+            }
+        });
+        return decoded;
+    }
+
+    /**
+     * 按全抖动指数退避（或服务端Retry-After）延迟后重试，受全局重试预算约束
+     * 下一次请求在等待前构建，熔断状态按它实际发往的端点检查
+     */
+    private CompletableFuture<Optional<String>> retryLater(String url, RequestFactory requestFactory,
+                                                           int retryCount, long retryAfterMillis,
+                                                           boolean conditional, IntPredicate isSuccess) {
+        if (retryCount + 1 >= CrawlerConfig.getRetryAttempts()) {
+            System.err.println("Max retry attempts reached for URL: " + url);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        HttpRequest next = requestFactory.create(conditional);
+        String target = next.uri().toString();
+        if (circuitBreaker.isOpen(target)) {
+            System.err.println("Circuit open for host " + SourceHosts.hostOf(target) + ", giving up URL: " + url);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        if (!retryPolicy.tryAcquireRetry()) {
+            System.err.println("Retry budget exhausted, giving up URL: " + url);
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        return retryPolicy.schedule(retryPolicy.backoffMillis(retryCount, retryAfterMillis))
+                .thenCompose(v -> attempt(url, requestFactory, next, retryCount + 1, conditional, isSuccess));
+    }
+
+    /**
+     * 将请求结果计入熔断器、自适应并发和端点选择统计
+     * 网络错误和5xx视为失败，网络错误和429/503同时作为拥塞信号
+     */
+    private void recordOutcome(String url, HttpResponse<?> response, Throwable error, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        int statusCode = error != null ? -1 : response.statusCode();
+        endpointSelector.onResponse(url, elapsedNanos, error != null || statusCode == 429 || statusCode >= 500);
+        if (error != null || (statusCode >= 500 && statusCode < 600)) {
+            circuitBreaker.onFailure(url, elapsedNanos);
+        } else {
+            circuitBreaker.onSuccess(url, elapsedNanos);
+        }
+        if (error != null || statusCode == 429 || statusCode == 503) {
+            concurrencyLimiter.onThrottled(url, elapsedNanos);
+        } else {
+            concurrencyLimiter.onSuccess(url, elapsedNanos);
+        }
+    }
+
+    /**
+     * 按Content-Encoding解压响应体，压缩数据到达后直接流式解码为字符串
+     */
+    private static HttpResponse<String> decode(String url, HttpResponse<InputStream> response) {
+        try (InputStream raw = response.body()) {
+            String body = ContentDecoding.decodeToString(raw,
+                    response.headers().firstValue("Content-Encoding").orElse(null),
+                    SourceHosts.hostOf(url), StandardCharsets.UTF_8);
+            return new DecodedResponse(response, body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void discard(HttpResponse<InputStream> response) {
+        try {
+            response.body().close();
+        } catch (IOException e) {
+            // 连接由JDK客户端回收，关闭失败无需处理
+        }
+    }
+
+    private HttpRequest.Builder newRequestBuilder(URI uri) {
+        return HttpRequest.newBuilder(uri)
+                .timeout(requestTimeout)
+                .header("User-Agent", CrawlerConfig.getUserAgent());
+    }
+
+    private static URI parseUri(String url) {
+        try {
+            return URI.create(url);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.err.println("Invalid URL: " + url + " - " + e.getMessage());
+            return null;
+        }
     }
 
     /**
-     * 异步批量获取多个URL
+     * 异步批量获取多个URL，全部请求同时发出，结果按参数顺序返回
+     * URL较多时使用有界并发、按完成顺序回调的getAllAsync(Iterator, int, BiConsumer)
      */
     public CompletableFuture<Optional<String>[]> getAllAsync(String... urls) {
         @SuppressWarnings("unchecked")
@@ -55,44 +345,194 @@ public class AsyncHttpClient {
                 });
     }
 
+    /**
+     * 有界并发地批量获取URL，每个结果按完成顺序交给onResult，urls按需逐个读取
+     * onResult在回调线程上串行调用，返回的Future在全部URL处理完成后完成；onResult抛出异常时停止发出新请求
+     *
+     * @param maxInFlight 同时在途的请求数上限
+     */
+    public CompletableFuture<Void> getAllAsync(Iterator<String> urls, int maxInFlight,
+                                               BiConsumer<String, Optional<String>> onResult) {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        streamAll(urls, maxInFlight).subscribe(new Flow.Subscriber<FetchResult>() {
+            private Flow.Subscription subscription;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(FetchResult result) {
+                try {
+                    onResult.accept(result.getUrl(), result.getBody());
+                } catch (RuntimeException e) {
+                    subscription.cancel();
+                    done.completeExceptionally(e);
+                }
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                done.completeExceptionally(error);
+            }
+
+            @Override
+            public void onComplete() {
+                done.complete(null);
+            }
+        });
+        return done;
+    }
+
+    /**
+     * 以Flow.Publisher的形式按完成顺序发布批量获取的结果
+     * 在途请求数不超过maxInFlight，也不超过订阅者通过request(n)表达的剩余需求，消费慢时自动停止发出新请求；
+     * urls只能遍历一次，因此返回的Publisher只接受一个订阅者
+     *
+     * @param maxInFlight 同时在途的请求数上限
+     */
+    public Flow.Publisher<FetchResult> streamAll(Iterator<String> urls, int maxInFlight) {
+        return new MultiGet(urls, maxInFlight, this::getAsync);
+    }
+
+    /**
+     * 批量获取中单个URL的结果，请求失败时body为空
+     */
+    public static class FetchResult {
+        private final String url;
+        private final Optional<String> body;
+
+        FetchResult(String url, Optional<String> body) {
+            this.url = url;
+            this.body = body;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public Optional<String> getBody() {
+            return body;
+        }
+    }
+
     /**
      * 异步检查URL是否可达
      */
     public CompletableFuture<Boolean> isUrlReachableAsync(String url) {
-        return CompletableFuture.supplyAsync(() -> httpClient.isUrlReachable(url), executorService);
+        URI uri = parseUri(url);
+        if (uri == null) {
+            return CompletableFuture.completedFuture(false);
+        }
+        HttpRequest request = newRequestBuilder(uri).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() == 200 || response.statusCode() == 404) // 404也算可达，只是资源不存在
+                .exceptionally(throwable -> false);
     }
 
     /**
      * 异步获取响应头
      */
     public CompletableFuture<Optional<String>> getHeaderAsync(String url, String headerName) {
-        return CompletableFuture.supplyAsync(() -> httpClient.getHeader(url, headerName), executorService);
+        URI uri = parseUri(url);
+        if (uri == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        HttpRequest request = newRequestBuilder(uri).GET().build();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.headers().firstValue(headerName))
+                .exceptionally(throwable -> Optional.empty());
     }
 
     /**
      * 带回调的异步GET请求
      */
     public void getWithCallback(String url, ResponseCallback callback) {
-        CompletableFuture.runAsync(() -> {
-            Optional<String> response = httpClient.get(url);
+        getAsync(url).thenAccept(response -> {
             if (callback != null) {
                 callback.onResponse(response);
             }
-        }, executorService);
+        });
     }
 
     /**
      * 关闭异步客户端
      */
     public void close() {
+        if (!ownsEngine) {
+            // 共享引擎在进程内复用，不随单个客户端关闭
+            return;
+        }
         try {
-            httpClient.close();
             executorService.shutdown();
         } catch (Exception e) {
             System.err.println("Error closing async HTTP client: " + e.getMessage());
         }
     }
 
+    /**
+     * 已解码为字符串的响应，其余信息取自原始响应
+     */
+    private static final class DecodedResponse implements HttpResponse<String> {
+        private final HttpResponse<InputStream> raw;
+        private final String body;
+
+        DecodedResponse(HttpResponse<InputStream> raw, String body) {
+            this.raw = raw;
+            this.body = body;
+        }
+
+        @Override
+        public int statusCode() {
+            return raw.statusCode();
+        }
+
+        @Override
+        public HttpRequest request() {
+            return raw.request();
+        }
+
+        @Override
+        public Optional<HttpResponse<String>> previousResponse() {
+            return Optional.empty();
+        }
+
+        @Override
+        public HttpHeaders headers() {
+            return raw.headers();
+        }
+
+        @Override
+        public String body() {
+            return body;
+        }
+
+        @Override
+        public Optional<SSLSession> sslSession() {
+            return raw.sslSession();
+        }
+
+        @Override
+        public URI uri() {
+            return raw.uri();
+        }
+
+        @Override
+        public java.net.http.HttpClient.Version version() {
+            return raw.version();
+        }
+    }
+
+    /**
+     * 为每次尝试构建请求，conditional为false时不附带缓存校验头
+     */
+    @FunctionalInterface
+    private interface RequestFactory {
+        HttpRequest create(boolean conditional);
+    }
+
     /**
      * 回调接口
      */
@@ -105,8 +545,10 @@ public class AsyncHttpClient {
      * 获取异步客户端状态信息
      */
     public String getStatus() {
-        return String.format("Async HTTP Client - Executor: %s, %s",
-                executorService.getClass().getSimpleName(),
-                httpClient.getStatus());
+        return String.format("Async HTTP Client - Engine: java.net.http, Callback Executor: %s, Timeout: %d seconds, %s, %s, %s, %s, %s, %s, %s, %s, %s",
+                executorService.getClass().getSimpleName(), CrawlerConfig.getRequestTimeout(),
+                rateLimiter.getStatus(), circuitBreaker.getStatus(), concurrencyLimiter.getStatus(),
+                retryPolicy.getStatus(), hedgePolicy.getStatus(), endpointSelector.getStatus(), IN_FLIGHT.getStatus(),
+                httpCache.getStatus(), ContentDecoding.getStatus());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,262 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 按容量分级的堆外缓冲区池，用于暂存响应体
+ * 容量为2的幂（4KB到1MB），归还的缓冲区按级别复用，池中保留的总字节数不超过max_pooled_mb
+ */
+public class BufferPool {
+    private static final int MIN_SHIFT = 12; // 4KB
+    private static final int MAX_SHIFT = 20; // 1MB
+    private static final int INITIAL_CHUNK = 16 * 1024;
+    private static volatile BufferPool instance;
+
+    private final boolean enabled;
+    private final long maxPooledBytes;
+    private final List<Queue<ByteBuffer>> classes = new ArrayList<>();
+    private final AtomicLong pooledBytes = new AtomicLong(0);
+    private final AtomicLong outstandingBytes = new AtomicLong(0);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private BufferPool() {
+        this.enabled = CrawlerConfig.isBufferPoolEnabled();
+        this.maxPooledBytes = CrawlerConfig.getBufferPoolMaxPooledMb() * 1024 * 1024;
+        for (int shift = MIN_SHIFT; shift <= MAX_SHIFT; shift++) {
+            classes.add(new ConcurrentLinkedQueue<>());
+        }
+    }
+
+    /**
+     * 获取进程内共享的缓冲区池实例
+     */
+    public static BufferPool getInstance() {
+        if (instance == null) {
+            synchronized (BufferPool.class) {
+                if (instance == null) {
+                    instance = new BufferPool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 取出容量不小于minCapacity的缓冲区（超过1MB时按1MB分配），用完后必须release
+     */
+    public ByteBuffer acquire(int minCapacity) {
+        int sizeClass = classOf(minCapacity);
+        ByteBuffer buffer = classes.get(sizeClass).poll();
+        if (buffer != null) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            hits.increment();
+            buffer.clear();
+        } else {
+            misses.increment();
+            buffer = ByteBuffer.allocateDirect(1 << (sizeClass + MIN_SHIFT));
+        }
+        outstandingBytes.addAndGet(buffer.capacity());
+        return buffer;
+    }
+
+    /**
+     * 归还缓冲区，池已满时丢弃交给GC回收
+     */
+    public void release(ByteBuffer buffer) {
+        outstandingBytes.addAndGet(-buffer.capacity());
+        if (pooledBytes.addAndGet(buffer.capacity()) > maxPooledBytes) {
+            pooledBytes.addAndGet(-buffer.capacity());
+            return;
+        }
+        classes.get(classOf(buffer.capacity())).offer(buffer);
+    }
+
+    /**
+     * 将输入流完整读入池化缓冲区，第一块的大小参考sizeHint，之后每块容量翻倍直到1MB
+     *
+     * @param sizeHint 预计长度，未知时传-1
+     */
+    public PooledBody readFully(InputStream in, long sizeHint) throws IOException {
+        PooledBody body = new PooledBody();
+        int chunkSize = sizeHint > 0 ? (int) Math.min(sizeHint, 1 << MAX_SHIFT) : INITIAL_CHUNK;
+        ReadableByteChannel channel = Channels.newChannel(in);
+        try {
+            ByteBuffer chunk = body.addChunk(acquire(chunkSize));
+            while (true) {
+                if (!chunk.hasRemaining()) {
+                    chunk = body.addChunk(acquire(Math.min(chunk.capacity() * 2, 1 << MAX_SHIFT)));
+                }
+                if (channel.read(chunk) < 0) {
+                    break;
+                }
+            }
+            return body;
+        } catch (IOException | RuntimeException e) {
+            body.close();
+            throw e;
+        }
+    }
+
+    private static int classOf(int capacity) {
+        int shift = 32 - Integer.numberOfLeadingZeros(Math.max(1, capacity) - 1);
+        return Math.min(Math.max(shift, MIN_SHIFT), MAX_SHIFT) - MIN_SHIFT;
+    }
+
+    /**
+     * 获取缓冲区池状态信息
+     */
+    public String getStatus() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return String.format("Buffer Pool - Hit Rate: %.1f%%, Outstanding: %d bytes, Pooled: %d bytes",
+                total > 0 ? hitCount * 100.0 / total : 0.0, outstandingBytes.get(), pooledBytes.get());
+    }
+
+    /**
+     * 暂存在池化缓冲区中的完整响应体，关闭时归还缓冲区
+     * 通过retain可以得到同一响应体的多个引用，每个引用各自关闭一次，全部关闭后缓冲区才归还
+     */
+    public class PooledBody implements Closeable {
+        private final List<ByteBuffer> chunks;
+        // 同一响应体所有未关闭引用的数量
+        private final AtomicInteger references;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private PooledBody() {
+            this(new ArrayList<>(), new AtomicInteger(1));
+        }
+
+        private PooledBody(List<ByteBuffer> chunks, AtomicInteger references) {
+            this.chunks = chunks;
+            this.references = references;
+        }
+
+        private ByteBuffer addChunk(ByteBuffer chunk) {
+            chunks.add(chunk);
+            return chunk;
+        }
+
+        /**
+         * 响应体字节数
+         */
+        public long length() {
+            long length = 0;
+            for (ByteBuffer chunk : chunks) {
+                length += chunk.position();
+            }
+            return length;
+        }
+
+        /**
+         * 以只读视图打开响应体，可多次调用；关闭PooledBody后不得再读取
+         */
+        public InputStream openStream() {
+            List<ByteBuffer> views = new ArrayList<>(chunks.size());
+            for (ByteBuffer chunk : chunks) {
+                ByteBuffer view = chunk.asReadOnlyBuffer();
+                view.flip();
+                views.add(view);
+            }
+            return new ByteBufferInputStream(views);
+        }
+
+        /**
+         * 创建同一响应体的另一个引用，可由其他调用方独立读取和关闭
+         */
+        public PooledBody retain() {
+            if (released.get()) {
+                throw new IllegalStateException("Pooled body already closed");
+            }
+            references.incrementAndGet();
+            return new PooledBody(chunks, references);
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true) && references.decrementAndGet() == 0) {
+                chunks.forEach(BufferPool.this::release);
+                chunks.clear();
+            }
+        }
+    }
+
+    /**
+     * 依次读取一组ByteBuffer的输入流
+     */
+    private static class ByteBufferInputStream extends InputStream {
+        private final List<ByteBuffer> buffers;
+        private int index;
+
+        ByteBufferInputStream(List<ByteBuffer> buffers) {
+            this.buffers = buffers;
+        }
+
+        private ByteBuffer current() {
+            while (index < buffers.size() && !buffers.get(index).hasRemaining()) {
+                index++;
+            }
+            return index < buffers.size() ? buffers.get(index) : null;
+        }
+
+        @Override
+        public int read() {
+            ByteBuffer buffer = current();
+            return buffer != null ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer buffer = current();
+            if (buffer == null) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            ByteBuffer buffer;
+            while (skipped < n && (buffer = current()) != null) {
+                int step = (int) Math.min(n - skipped, buffer.remaining());
+                buffer.position(buffer.position() + step);
+                skipped += step;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            long available = 0;
+            for (int i = index; i < buffers.size(); i++) {
+                available += buffers.get(i).remaining();
+            }
+            return (int) Math.min(Integer.MAX_VALUE, available);
+        }
+    }
+}
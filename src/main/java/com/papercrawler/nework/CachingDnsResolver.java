@@ -0,0 +1,121 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+import org.apache.http.conn.DnsResolver;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 带TTL的DNS缓存，供共享连接池建立连接时使用
+ * 缓存过期后重新解析，解析失败时在stale_ttl_seconds内继续使用旧结果，避免DNS抖动导致整批请求失败
+ */
+public class CachingDnsResolver implements DnsResolver {
+    private static volatile CachingDnsResolver instance;
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final long staleTtlNanos;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+
+    private CachingDnsResolver() {
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(CrawlerConfig.getDnsCacheTtlSeconds());
+        this.staleTtlNanos = TimeUnit.SECONDS.toNanos(CrawlerConfig.getDnsStaleTtlSeconds());
+    }
+
+    /**
+     * 获取进程内共享的DNS缓存实例
+     */
+    public static CachingDnsResolver getInstance() {
+        if (instance == null) {
+            synchronized (CachingDnsResolver.class) {
+                if (instance == null) {
+                    instance = new CachingDnsResolver();
+                }
+            }
+        }
+        return instance;
+    }
+
+    @Override
+    public InetAddress[] resolve(String host) throws UnknownHostException {
+        String key = host.toLowerCase();
+        long now = System.nanoTime();
+        Entry entry = cache.get(key);
+        if (entry != null && now - entry.expiresAt < 0) {
+            hits.increment();
+            return entry.addresses.clone();
+        }
+
+        misses.increment();
+        try {
+            InetAddress[] addresses = InetAddress.getAllByName(host);
+            // 只有缓存未命中时的实际查询计入请求的DNS阶段
+            PhaseTimer.record(NetworkTimings.Phase.DNS, System.nanoTime() - now);
+            cache.put(key, new Entry(addresses, now + ttlNanos));
+            return addresses.clone();
+        } catch (UnknownHostException e) {
+            PhaseTimer.record(NetworkTimings.Phase.DNS, System.nanoTime() - now);
+            if (entry != null && now - entry.expiresAt < staleTtlNanos) {
+                staleServed.increment();
+                System.err.println("DNS lookup failed for " + host + ", using cached addresses");
+                return entry.addresses.clone();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 并行解析一组主机并写入缓存
+     *
+     * @return 解析成功的主机数
+     */
+    public int prefetch(Collection<String> hosts) {
+        CompletableFuture<?>[] lookups = hosts.stream()
+                .map(host -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        resolve(host);
+                        return true;
+                    } catch (UnknownHostException e) {
+                        System.err.println("DNS prefetch failed for " + host + ": " + e.getMessage());
+                        return false;
+                    }
+                }))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(lookups).join();
+
+        int resolved = 0;
+        for (CompletableFuture<?> lookup : lookups) {
+            if (Boolean.TRUE.equals(lookup.join())) {
+                resolved++;
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * 获取DNS缓存状态信息
+     */
+    public String getStatus() {
+        return String.format("DNS Cache - Entries: %d, Hits: %d, Misses: %d, Stale: %d",
+                cache.size(), hits.sum(), misses.sum(), staleServed.sum());
+    }
+
+    private static class Entry {
+        final InetAddress[] addresses;
+        final long expiresAt;
+
+        Entry(InetAddress[] addresses, long expiresAt) {
+            this.addresses = addresses;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按主机划分的熔断器
+ * 统计最近window_size次请求的失败率和慢调用率，超过阈值后熔断并快速失败，
+ * 等待open_duration_ms后进入半开状态，放行少量探测请求，全部成功则恢复
+ */
+public class CircuitBreaker {
+    private static final CircuitBreaker INSTANCE = new CircuitBreaker();
+
+    private final Map<String, HostCircuit> circuits = new ConcurrentHashMap<>();
+    private final boolean enabled = CrawlerConfig.isCircuitBreakerEnabled();
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private CircuitBreaker() {
+    }
+
+    /**
+     * 获取进程内共享的熔断器实例
+     */
+    public static CircuitBreaker getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 请求发出前检查熔断状态，熔断打开时返回false
+     * 返回true后必须调用onSuccess、onFailure或release之一
+     */
+    public boolean tryAcquire(String url) {
+        return !enabled || circuitFor(SourceHosts.hostOf(url)).tryAcquire();
+    }
+
+    /**
+     * 记录一次成功响应（包括4xx，说明服务端仍在正常工作）
+     */
+    public void onSuccess(String url, long elapsedNanos) {
+        if (enabled) {
+            circuitFor(SourceHosts.hostOf(url)).record(false, elapsedNanos);
+        }
+    }
+
+    /**
+     * 记录一次失败（网络错误或5xx）
+     */
+    public void onFailure(String url, long elapsedNanos) {
+        if (enabled) {
+            circuitFor(SourceHosts.hostOf(url)).record(true, elapsedNanos);
+        }
+    }
+
+    /**
+     * 已获得许可但请求未实际发出时归还许可
+     */
+    public void release(String url) {
+        if (enabled) {
+            circuitFor(SourceHosts.hostOf(url)).release();
+        }
+    }
+
+    /**
+     * 主机是否处于熔断打开且尚未到半开时间，用于重试前快速失败
+     */
+    public boolean isOpen(String url) {
+        HostCircuit circuit = enabled ? circuits.get(SourceHosts.hostOf(url)) : null;
+        return circuit != null && circuit.rejecting();
+    }
+
+    /**
+     * 获取某个主机当前的熔断状态
+     */
+    public State getState(String host) {
+        HostCircuit circuit = circuits.get(host);
+        return circuit != null ? circuit.currentState() : State.CLOSED;
+    }
+
+    private HostCircuit circuitFor(String host) {
+        return circuits.computeIfAbsent(host, key -> new HostCircuit());
+    }
+
+    /**
+     * 获取熔断器状态信息
+     */
+    public String getStatus() {
+        StringBuilder sb = new StringBuilder("Circuit Breaker -");
+        if (!enabled) {
+            return sb.append(" disabled").toString();
+        }
+        if (circuits.isEmpty()) {
+            sb.append(" no hosts");
+        }
+        circuits.forEach((host, circuit) -> sb.append(" [").append(host).append(": ")
+                .append(circuit.describe()).append(']'));
+        return sb.toString();
+    }
+
+    /**
+     * 单个主机的熔断状态，基于计数的环形滑动窗口
+     */
+    private static class HostCircuit {
+        private final int windowSize = Math.max(1, CrawlerConfig.getCircuitBreakerWindowSize());
+        private final int minimumCalls = Math.max(1, Math.min(windowSize, CrawlerConfig.getCircuitBreakerMinimumCalls()));
+        private final double failureRateThreshold = CrawlerConfig.getCircuitBreakerFailureRateThreshold();
+        private final double slowCallRateThreshold = CrawlerConfig.getCircuitBreakerSlowCallRateThreshold();
+        private final long slowCallNanos = TimeUnit.MILLISECONDS.toNanos(CrawlerConfig.getCircuitBreakerSlowCallMillis());
+        private final long openNanos = TimeUnit.MILLISECONDS.toNanos(CrawlerConfig.getCircuitBreakerOpenMillis());
+        private final int halfOpenProbes = Math.max(1, CrawlerConfig.getCircuitBreakerHalfOpenProbes());
+
+        // 窗口中每个位置的结果：bit0为失败，bit1为慢调用
+        private final byte[] outcomes = new byte[windowSize];
+        private int next;
+        private int calls;
+        private int failures;
+        private int slowCalls;
+
+        private State state = State.CLOSED;
+        private long openedAt;
+        private int probesInFlight;
+        private int probeSuccesses;
+        private long rejected;
+        private int timesOpened;
+
+        synchronized boolean tryAcquire() {
+            if (state == State.OPEN) {
+                if (System.nanoTime() - openedAt < openNanos) {
+                    rejected++;
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                probesInFlight = 0;
+                probeSuccesses = 0;
+            }
+            if (state == State.HALF_OPEN) {
+                if (probesInFlight + probeSuccesses >= halfOpenProbes) {
+                    rejected++;
+                    return false;
+                }
+                probesInFlight++;
+            }
+            return true;
+        }
+
+        synchronized void record(boolean failure, long elapsedNanos) {
+            boolean slow = elapsedNanos >= slowCallNanos;
+
+            if (state == State.HALF_OPEN) {
+                probesInFlight = Math.max(0, probesInFlight - 1);
+                if (failure || slow) {
+                    open();
+                } else if (++probeSuccesses >= halfOpenProbes) {
+                    close();
+                }
+                return;
+            }
+            if (state == State.OPEN) {
+                // 熔断前已发出的请求，结果不再计入
+                return;
+            }
+
+            if (calls == windowSize) {
+                byte evicted = outcomes[next];
+                failures -= evicted & 1;
+                slowCalls -= (evicted >> 1) & 1;
+            } else {
+                calls++;
+            }
+            outcomes[next] = (byte) ((failure ? 1 : 0) | (slow ? 2 : 0));
+            failures += failure ? 1 : 0;
+            slowCalls += slow ? 1 : 0;
+            next = (next + 1) % windowSize;
+
+            if (calls >= minimumCalls
+                    && (failures >= failureRateThreshold * calls || slowCalls >= slowCallRateThreshold * calls)) {
+                open();
+            }
+        }
+
+        synchronized void release() {
+            if (state == State.HALF_OPEN) {
+                probesInFlight = Math.max(0, probesInFlight - 1);
+            }
+        }
+
+        synchronized boolean rejecting() {
+            return state == State.OPEN && System.nanoTime() - openedAt < openNanos;
+        }
+
+        synchronized State currentState() {
+            return state;
+        }
+
+        synchronized String describe() {
+            return String.format("%s, failures %d/%d, slow %d/%d, opened %d times, rejected %d",
+                    state, failures, calls, slowCalls, calls, timesOpened, rejected);
+        }
+
+        private void open() {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            timesOpened++;
+            resetWindow();
+        }
+
+        private void close() {
+            state = State.CLOSED;
+            resetWindow();
+        }
+
+        private void resetWindow() {
+            next = 0;
+            calls = 0;
+            failures = 0;
+            slowCalls = 0;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 按数据源自适应调整并发上限的限流器（AIMD）
+ * HttpClient上报每次请求的延迟和限流信号：延迟接近基线时每轮加性增加上限，
+ * 遇到429/503、网络错误或延迟超过基线rtt_tolerance倍时按backoff_ratio成倍减少。
+ * 调度器在分发每个批次前获取许可，批次请求结束后释放
+ */
+public class ConcurrencyLimiter {
+    private static final ConcurrencyLimiter INSTANCE = new ConcurrencyLimiter();
+    private static final int RTT_WINDOW_SAMPLES = 50;
+
+    private final Map<String, SourceLimit> limits = new ConcurrentHashMap<>();
+    private final boolean enabled = CrawlerConfig.isAdaptiveConcurrencyEnabled();
+
+    private ConcurrencyLimiter() {
+    }
+
+    /**
+     * 获取进程内共享的并发限流器实例
+     */
+    public static ConcurrencyLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 同步获取许可，在途请求数达到当前上限时阻塞
+     *
+     * @return 被中断时返回null
+     */
+    public Permit acquire(String url) {
+        CompletableFuture<Permit> future = acquireAsync(url);
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            // 取消失败说明许可已经分配，需要归还
+            if (!future.cancel(false)) {
+                future.join().release();
+            }
+            return null;
+        } catch (ExecutionException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 异步获取许可，等待期间不占用线程
+     */
+    public CompletableFuture<Permit> acquireAsync(String url) {
+        if (!enabled) {
+            return CompletableFuture.completedFuture(new Permit(null));
+        }
+        return limitFor(url).acquire();
+    }
+
+    /**
+     * 上报一次正常响应的往返时间
+     */
+    public void onSuccess(String url, long rttNanos) {
+        if (enabled) {
+            limitFor(url).onSample(rttNanos, false);
+        }
+    }
+
+    /**
+     * 上报一次拥塞信号：429/503或网络错误
+     */
+    public void onThrottled(String url, long rttNanos) {
+        if (enabled) {
+            limitFor(url).onSample(rttNanos, true);
+        }
+    }
+
+    /**
+     * 获取数据源当前的并发上限
+     */
+    public int getLimit(String source) {
+        SourceLimit limit = limits.get(source);
+        return limit != null ? limit.currentLimit() : CrawlerConfig.getConcurrencyInitialLimit();
+    }
+
+    private SourceLimit limitFor(String url) {
+        return limits.computeIfAbsent(SourceHosts.sourceOf(SourceHosts.hostOf(url)), key -> new SourceLimit());
+    }
+
+    /**
+     * 获取并发限流器状态信息
+     */
+    public String getStatus() {
+        StringBuilder sb = new StringBuilder("Adaptive Concurrency -");
+        if (!enabled) {
+            return sb.append(" disabled").toString();
+        }
+        if (limits.isEmpty()) {
+            sb.append(" no sources");
+        }
+        limits.forEach((source, limit) -> sb.append(" [").append(source).append(": ")
+                .append(limit.describe()).append(']'));
+        return sb.toString();
+    }
+
+    /**
+     * 一个在途许可，重复释放无副作用
+     */
+    public static class Permit implements AutoCloseable {
+        private final SourceLimit owner;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        private Permit(SourceLimit owner) {
+            this.owner = owner;
+        }
+
+        public void release() {
+            if (owner != null && released.compareAndSet(false, true)) {
+                owner.release();
+            }
+        }
+
+        @Override
+        public void close() {
+            release();
+        }
+    }
+
+    /**
+     * 单个数据源的并发上限与等待队列
+     */
+    private static class SourceLimit {
+        private final int minLimit = Math.max(1, CrawlerConfig.getConcurrencyMinLimit());
+        private final int maxLimit = Math.max(minLimit, CrawlerConfig.getConcurrencyMaxLimit());
+        private final double rttTolerance = Math.max(1.0, CrawlerConfig.getConcurrencyRttTolerance());
+        private final double backoffRatio = Math.min(0.95, Math.max(0.1, CrawlerConfig.getConcurrencyBackoffRatio()));
+
+        private final Queue<CompletableFuture<Permit>> waiters = new ArrayDeque<>();
+        private double limit = Math.max(minLimit, Math.min(maxLimit, CrawlerConfig.getConcurrencyInitialLimit()));
+        private int inFlight;
+
+        // 基线延迟取上一窗口与当前窗口最小值中的较小者，窗口滚动使基线能跟随网络变化
+        private long previousWindowMinRtt = Long.MAX_VALUE;
+        private long windowMinRtt = Long.MAX_VALUE;
+        private int windowSamples;
+        private long lastDecreaseNanos;
+        private long increases;
+        private long decreases;
+
+        CompletableFuture<Permit> acquire() {
+            CompletableFuture<Permit> future = new CompletableFuture<>();
+            synchronized (this) {
+                if (inFlight < (int) limit && waiters.isEmpty()) {
+                    inFlight++;
+                } else {
+                    waiters.add(future);
+                    return future;
+                }
+            }
+            future.complete(new Permit(this));
+            return future;
+        }
+
+        void release() {
+            List<CompletableFuture<Permit>> granted;
+            synchronized (this) {
+                inFlight--;
+                granted = grantWaiters();
+            }
+            complete(granted);
+        }
+
+        void onSample(long rttNanos, boolean congested) {
+            List<CompletableFuture<Permit>> granted;
+            synchronized (this) {
+                long now = System.nanoTime();
+                if (!congested && rttNanos > 0) {
+                    windowMinRtt = Math.min(windowMinRtt, rttNanos);
+                    if (++windowSamples >= RTT_WINDOW_SAMPLES) {
+                        previousWindowMinRtt = windowMinRtt;
+                        windowMinRtt = Long.MAX_VALUE;
+                        windowSamples = 0;
+                    }
+                }
+                long baseline = Math.min(previousWindowMinRtt, windowMinRtt);
+
+                if (congested || (baseline != Long.MAX_VALUE && rttNanos > baseline * rttTolerance)) {
+                    // 同一轮往返内只降一次，避免同一批失败把上限压到最低
+                    long cooldown = baseline != Long.MAX_VALUE ? baseline : rttNanos;
+                    if (now - lastDecreaseNanos >= cooldown) {
+                        limit = Math.max(minLimit, limit * backoffRatio);
+                        lastDecreaseNanos = now;
+                        decreases++;
+                    }
+                } else if (inFlight * 2 >= (int) limit) {
+                    // 只有上限被实际用到时才增加，每轮往返约增加1
+                    double before = limit;
+                    limit = Math.min(maxLimit, limit + 1.0 / limit);
+                    if ((int) limit > (int) before) {
+                        increases++;
+                    }
+                }
+                granted = grantWaiters();
+            }
+            complete(granted);
+        }
+
+        /**
+         * 在锁内按当前上限分配许可，Future在锁外完成，避免回调在持锁时执行
+         */
+        private List<CompletableFuture<Permit>> grantWaiters() {
+            List<CompletableFuture<Permit>> granted = new ArrayList<>();
+            while (inFlight < (int) limit && !waiters.isEmpty()) {
+                CompletableFuture<Permit> waiter = waiters.poll();
+                if (!waiter.isDone()) {
+                    inFlight++;
+                    granted.add(waiter);
+                }
+            }
+            return granted;
+        }
+
+        private void complete(List<CompletableFuture<Permit>> granted) {
+            for (CompletableFuture<Permit> waiter : granted) {
+                Permit permit = new Permit(this);
+                if (!waiter.complete(permit)) {
+                    // 等待方已取消
+                    permit.release();
+                }
+            }
+        }
+
+        synchronized int currentLimit() {
+            return (int) limit;
+        }
+
+        synchronized String describe() {
+            long baseline = Math.min(previousWindowMinRtt, windowMinRtt);
+            return String.format("limit %d, in flight %d, waiting %d, baseline RTT %s, +%d/-%d",
+                    (int) limit, inFlight, waiters.size(),
+                    baseline == Long.MAX_VALUE ? "n/a" : (baseline / 1_000_000) + " ms", increases, decreases);
+        }
+    }
+}
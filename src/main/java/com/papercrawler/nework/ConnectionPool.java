@@ -0,0 +1,384 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.IdleConnectionEvictor;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.apache.http.ssl.SSLContexts;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内共享的HTTP连接池
+ * 所有HttpClient实例共用同一个连接管理器，按数据源主机限制连接数，
+ * 后台线程回收过期和空闲连接，并支持启动时预热连接
+ */
+public class ConnectionPool {
+    private static final int MAX_WARMUP_THREADS = 16;
+
+    private static volatile ConnectionPool instance;
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final IdleConnectionEvictor evictor;
+    private final Map<String, HttpRoute> sourceRoutes = new LinkedHashMap<>();
+    private final Map<String, HttpRoute> proxiedRoutes = new LinkedHashMap<>();
+    private final Map<HttpRoute, ProxyPool.Proxy> routeProxies = new HashMap<>();
+    private final long idleTimeoutMillis;
+
+    private ConnectionPool() {
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(CrawlerConfig.getPoolIdleTimeoutSeconds());
+
+        // 建立连接时通过CachingDnsResolver解析主机，避免每条新连接都重新查询DNS
+        // 套接字工厂和租用连接带有计时钩子，耗时计入当前线程上进行中的请求
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", new TimedPlainSocketFactory())
+                .register("https", new TimedSslSocketFactory())
+                .build();
+        this.connectionManager = new PoolingHttpClientConnectionManager(socketFactories, null, null,
+                CachingDnsResolver.getInstance(), CrawlerConfig.getPoolConnectionTtlSeconds(), TimeUnit.SECONDS) {
+            @Override
+            public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+                return new TimedConnectionRequest(super.requestConnection(route, state));
+            }
+        };
+        connectionManager.setMaxTotal(CrawlerConfig.getPoolMaxTotal());
+        connectionManager.setDefaultMaxPerRoute(CrawlerConfig.getPoolMaxPerRoute(SourceHosts.DEFAULT_SOURCE));
+        connectionManager.setValidateAfterInactivity(CrawlerConfig.getPoolValidateAfterInactivityMillis());
+
+        // 按数据源主机设置连接上限，镜像端点与主端点使用相同的上限
+        SourceHosts.configuredEndpoints().forEach((source, baseUrls) -> {
+            for (int i = 0; i < baseUrls.size(); i++) {
+                HttpRoute route = routeOf(baseUrls.get(i));
+                if (route == null) {
+                    continue;
+                }
+                String name = i == 0 ? source : source + " mirror " + route.getTargetHost().getHostName();
+                sourceRoutes.put(name, route);
+                connectionManager.setMaxPerRoute(route, CrawlerConfig.getPoolMaxPerRoute(source));
+                // 经代理访问时路由包含代理主机，每个代理各自拥有该数据源的连接上限
+                for (ProxyPool.Proxy proxy : ProxyPool.getInstance().getProxies()) {
+                    HttpRoute proxied = new HttpRoute(route.getTargetHost(), null,
+                            new HttpHost(proxy.getHost(), proxy.getPort()), route.isSecure());
+                    proxiedRoutes.put(name + " via " + proxy.getId(), proxied);
+                    routeProxies.put(proxied, proxy);
+                    connectionManager.setMaxPerRoute(proxied, CrawlerConfig.getPoolMaxPerRoute(source));
+                }
+            }
+        });
+
+        // 回收线程为守护线程，检查间隔取空闲超时的一半
+        long evictIntervalMillis = Math.max(1000, idleTimeoutMillis / 2);
+        this.evictor = new IdleConnectionEvictor(connectionManager,
+                evictIntervalMillis, TimeUnit.MILLISECONDS, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        evictor.start();
+    }
+
+    /**
+     * 获取进程内共享的连接池实例
+     */
+    public static ConnectionPool getInstance() {
+        if (instance == null) {
+            synchronized (ConnectionPool.class) {
+                if (instance == null) {
+                    instance = new ConnectionPool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 共享的连接管理器，HttpClient需配合setConnectionManagerShared(true)使用
+     */
+    public PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    /**
+     * 优先使用服务端Keep-Alive头给出的时长，但不超过配置的空闲超时
+     */
+    public ConnectionKeepAliveStrategy keepAliveStrategy() {
+        return (response, context) -> {
+            long serverMillis = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverMillis > 0 ? Math.min(serverMillis, idleTimeoutMillis) : idleTimeoutMillis;
+        };
+    }
+
+    /**
+     * 解析数据源主机（启用代理时为代理主机）并写入DNS缓存
+     *
+     * @return 解析成功的主机数
+     */
+    public int resolveHosts() {
+        Set<String> hosts = new LinkedHashSet<>();
+        if (proxiedRoutes.isEmpty()) {
+            sourceRoutes.values().forEach(route -> hosts.add(route.getTargetHost().getHostName()));
+        } else {
+            // 经代理访问时目标主机由代理解析
+            proxiedRoutes.values().forEach(route -> hosts.add(route.getProxyHost().getHostName()));
+        }
+        return CachingDnsResolver.getInstance().prefetch(hosts);
+    }
+
+    /**
+     * 为每个数据源主机预先建立连接（包括TLS握手），放回池中供后续请求复用
+     * 启用代理时为每个代理分别预热，HTTPS经代理的连接先发送CONNECT建立隧道再完成TLS握手，
+     * 各主机和各连接的握手并行进行
+     *
+     * @return 成功建立的连接数
+     */
+    public int warmUp(int connectionsPerHost) {
+        if (connectionsPerHost <= 0) {
+            return 0;
+        }
+        int connectTimeout = (int) TimeUnit.SECONDS.toMillis(CrawlerConfig.getRequestTimeout());
+        Map<String, HttpRoute> routes = proxiedRoutes.isEmpty() ? sourceRoutes : proxiedRoutes;
+
+        // 同时持有全部连接，否则连接池会反复返回同一条连接
+        Map<HttpClientConnection, String> leased = new LinkedHashMap<>();
+        Map<HttpClientConnection, HttpRoute> leasedRoutes = new HashMap<>();
+        for (Map.Entry<String, HttpRoute> entry : routes.entrySet()) {
+            HttpRoute route = entry.getValue();
+            int count = Math.min(connectionsPerHost, connectionManager.getMaxPerRoute(route));
+            try {
+                for (int i = 0; i < count; i++) {
+                    ConnectionRequest request = connectionManager.requestConnection(route, null);
+                    HttpClientConnection connection = request.get(connectTimeout, TimeUnit.MILLISECONDS);
+                    leased.put(connection, entry.getKey());
+                    leasedRoutes.put(connection, route);
+                }
+            } catch (Exception e) {
+                System.err.println("Connection warm-up failed for " + entry.getKey() + ": " + e.getMessage());
+            }
+        }
+        if (leased.isEmpty()) {
+            return 0;
+        }
+
+        AtomicInteger opened = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(leased.size(), MAX_WARMUP_THREADS),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "pool-warmup");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        try {
+            List<CompletableFuture<Void>> connects = new ArrayList<>();
+            leased.forEach((connection, name) -> connects.add(CompletableFuture.runAsync(() -> {
+                try {
+                    if (!connection.isOpen()) {
+                        HttpRoute route = leasedRoutes.get(connection);
+                        HttpClientContext context = HttpClientContext.create();
+                        connectionManager.connect(connection, route, connectTimeout, context);
+                        if (route.isTunnelled()) {
+                            // 与MainClientExec.establishRoute一致：连到代理后建立隧道，再在隧道上升级为TLS
+                            openTunnel(connection, route, context);
+                            connectionManager.upgrade(connection, route, context);
+                        }
+                        connectionManager.routeComplete(connection, route, context);
+                    }
+                    opened.incrementAndGet();
+                } catch (Exception e) {
+                    System.err.println("Connection warm-up failed for " + name + ": " + e.getMessage());
+                }
+            }, executor)));
+            CompletableFuture.allOf(connects.toArray(new CompletableFuture<?>[0])).join();
+        } finally {
+            executor.shutdown();
+            // 未连通的连接在归还时会被连接池丢弃
+            for (HttpClientConnection connection : leased.keySet()) {
+                connectionManager.releaseConnection(connection, null, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        return opened.get();
+    }
+
+    /**
+     * 经代理向目标主机发送CONNECT，代理返回2xx后连接即为到目标主机的隧道
+     * 配置了代理账号时预先携带Basic认证，代理拒绝时关闭连接并抛出异常
+     */
+    private void openTunnel(HttpClientConnection connection, HttpRoute route, HttpContext context)
+            throws IOException, HttpException {
+        String authority = route.getTargetHost().toHostString();
+        BasicHttpRequest connect = new BasicHttpRequest("CONNECT", authority, HttpVersion.HTTP_1_1);
+        connect.setHeader(HttpHeaders.HOST, authority);
+        connect.setHeader(HttpHeaders.USER_AGENT, CrawlerConfig.getUserAgent());
+        ProxyPool.Proxy proxy = routeProxies.get(route);
+        if (proxy != null && proxy.hasCredentials()) {
+            String credentials = proxy.getUsername() + ":" + proxy.getPassword();
+            connect.setHeader(HttpHeaders.PROXY_AUTHORIZATION,
+                    "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        HttpResponse response = new HttpRequestExecutor().execute(connect, connection, context);
+        int statusCode = response.getStatusLine().getStatusCode();
+        if (statusCode < 200 || statusCode > 299) {
+            connection.close();
+            throw new IOException("Proxy refused tunnel to " + authority + ": " + response.getStatusLine());
+        }
+    }
+
+    /**
+     * 将空闲超时同步到java.net.http的连接池，需在创建第一个JDK HttpClient之前调用
+     */
+    public static void applyJdkClientDefaults() {
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout",
+                    String.valueOf(CrawlerConfig.getPoolIdleTimeoutSeconds()));
+        }
+    }
+
+    private static HttpRoute routeOf(String baseUrl) {
+        try {
+            URI uri = URI.create(baseUrl);
+            String scheme = uri.getScheme() != null ? uri.getScheme().toLowerCase() : "http";
+            boolean secure = "https".equals(scheme);
+            int port = uri.getPort() > 0 ? uri.getPort() : (secure ? 443 : 80);
+            // 与DefaultRoutePlanner生成的路由保持一致，否则按路由的连接上限和预热连接不会生效
+            return new HttpRoute(new HttpHost(uri.getHost(), port, scheme), null, secure);
+        } catch (IllegalArgumentException | NullPointerException e) {
+            System.err.println("Invalid base URL for connection pool: " + baseUrl);
+            return null;
+        }
+    }
+
+    /**
+     * 记录等待空闲连接的时间
+     */
+    private static class TimedConnectionRequest implements ConnectionRequest {
+        private final ConnectionRequest delegate;
+
+        TimedConnectionRequest(ConnectionRequest delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+            long startNanos = System.nanoTime();
+            try {
+                return delegate.get(timeout, timeUnit);
+            } finally {
+                PhaseTimer.record(NetworkTimings.Phase.POOL_LEASE, System.nanoTime() - startNanos);
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            return delegate.cancel();
+        }
+    }
+
+    /**
+     * 记录TCP建连时间
+     */
+    private static class TimedPlainSocketFactory extends PlainConnectionSocketFactory {
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            long startNanos = System.nanoTime();
+            try {
+                return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            } finally {
+                PhaseTimer.record(NetworkTimings.Phase.CONNECT, System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * 分别记录TCP建连和TLS握手时间，握手在createLayeredSocket中完成
+     */
+    private static class TimedSslSocketFactory extends SSLConnectionSocketFactory {
+        TimedSslSocketFactory() {
+            super(SSLContexts.createDefault(), getDefaultHostnameVerifier());
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            long startNanos = System.nanoTime();
+            long tlsBefore = PhaseTimer.current(NetworkTimings.Phase.TLS);
+            try {
+                return super.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            } finally {
+                long tlsNanos = PhaseTimer.current(NetworkTimings.Phase.TLS) - tlsBefore;
+                PhaseTimer.record(NetworkTimings.Phase.CONNECT, System.nanoTime() - startNanos - tlsNanos);
+            }
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context)
+                throws IOException {
+            long startNanos = System.nanoTime();
+            try {
+                return super.createLayeredSocket(socket, target, port, context);
+            } finally {
+                PhaseTimer.record(NetworkTimings.Phase.TLS, System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    /**
+     * 关闭连接池，只应在进程退出前调用
+     */
+    public void shutdown() {
+        evictor.shutdown();
+        connectionManager.shutdown();
+    }
+
+    /**
+     * 获取连接池状态信息
+     */
+    public String getStatus() {
+        PoolStats total = connectionManager.getTotalStats();
+        StringBuilder sb = new StringBuilder(String.format(
+                "Connection Pool - Leased: %d, Available: %d, Pending: %d, Max: %d",
+                total.getLeased(), total.getAvailable(), total.getPending(), total.getMax()));
+        sourceRoutes.forEach((source, route) -> {
+            PoolStats stats = connectionManager.getStats(route);
+            sb.append(String.format(" [%s: leased %d, available %d, pending %d, max %d]", source,
+                    stats.getLeased(), stats.getAvailable(), stats.getPending(), stats.getMax()));
+        });
+        // 新连接经CachingDnsResolver解析主机
+        sb.append(", ").append(CachingDnsResolver.getInstance().getStatus());
+        return sb.toString();
+    }
+}
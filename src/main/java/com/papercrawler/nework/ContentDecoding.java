@@ -0,0 +1,196 @@
+package com.papercrawler.network;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.lang.reflect.Constructor;
+import java.nio.charset.Charset;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 响应体压缩协商与流式解压
+ * 支持gzip/deflate，类路径中存在org.brotli:dec时额外支持br，并按数据源统计传输字节与解压字节
+ */
+public final class ContentDecoding {
+    private static final Constructor<?> BROTLI_CONSTRUCTOR = findBrotliConstructor();
+
+    /** 请求头Accept-Encoding的取值 */
+    public static final String ACCEPT_ENCODING = BROTLI_CONSTRUCTOR != null ? "gzip, deflate, br" : "gzip, deflate";
+
+    private static final Map<String, TransferCounter> COUNTERS = new ConcurrentHashMap<>();
+
+    private ContentDecoding() {
+        // 私有构造函数，防止实例化
+    }
+
+    /**
+     * 按Content-Encoding包装解压流，读取过程中实时统计线上字节数与解压后字节数
+     */
+    public static InputStream decode(InputStream raw, String contentEncoding, String host) throws IOException {
+        TransferCounter counter = COUNTERS.computeIfAbsent(SourceHosts.sourceOf(host), key -> new TransferCounter());
+        CountingInputStream wire = new CountingInputStream(raw, counter.bytesOnWire);
+        return new CountingInputStream(decompress(wire, contentEncoding), counter.bytesDecoded);
+    }
+
+    /**
+     * 将压缩的响应体直接流式解码为字符串，不产生解压后的中间字节数组
+     */
+    public static String decodeToString(InputStream raw, String contentEncoding, String host,
+                                        Charset charset) throws IOException {
+        try (InputStream decoded = decode(raw, contentEncoding, host)) {
+            return readString(decoded, charset);
+        }
+    }
+
+    /**
+     * 按字符集将输入流读取为字符串
+     */
+    public static String readString(InputStream in, Charset charset) throws IOException {
+        Reader reader = new InputStreamReader(in, charset);
+        StringBuilder sb = new StringBuilder();
+        char[] buffer = new char[8192];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            sb.append(buffer, 0, read);
+        }
+        return sb.toString();
+    }
+
+    private static InputStream decompress(InputStream in, String contentEncoding) throws IOException {
+        if (contentEncoding == null) {
+            return in;
+        }
+        switch (contentEncoding.trim().toLowerCase(Locale.ROOT)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(in, 8192);
+            case "deflate":
+                return inflate(in);
+            case "br":
+                return brotli(in);
+            case "":
+            case "identity":
+                return in;
+            default:
+                throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        }
+    }
+
+    /**
+     * deflate编码在实际中既可能带zlib头也可能是裸deflate流，根据首字节判断
+     */
+    private static InputStream inflate(InputStream in) throws IOException {
+        PushbackInputStream pushback = new PushbackInputStream(in, 2);
+        byte[] header = new byte[2];
+        int read = pushback.read(header);
+        if (read <= 0) {
+            return pushback;
+        }
+        pushback.unread(header, 0, read);
+        boolean zlibWrapped = read == 2 && (header[0] & 0x0F) == 8
+                && (((header[0] & 0xFF) << 8) | (header[1] & 0xFF)) % 31 == 0;
+        return new InflaterInputStream(pushback, new Inflater(!zlibWrapped), 8192);
+    }
+
+    private static InputStream brotli(InputStream in) throws IOException {
+        if (BROTLI_CONSTRUCTOR == null) {
+            throw new IOException("Brotli decoder not available");
+        }
+        try {
+            return (InputStream) BROTLI_CONSTRUCTOR.newInstance(in);
+        } catch (ReflectiveOperationException e) {
+            throw new IOException("Failed to create Brotli decoder", e);
+        }
+    }
+
+    private static Constructor<?> findBrotliConstructor() {
+        try {
+            return Class.forName("org.brotli.dec.BrotliInputStream").getConstructor(InputStream.class);
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 获取某个数据源累计的线上传输字节数
+     */
+    public static long getBytesOnWire(String source) {
+        TransferCounter counter = COUNTERS.get(source);
+        return counter != null ? counter.bytesOnWire.sum() : 0;
+    }
+
+    /**
+     * 获取某个数据源累计的解压后字节数
+     */
+    public static long getBytesDecoded(String source) {
+        TransferCounter counter = COUNTERS.get(source);
+        return counter != null ? counter.bytesDecoded.sum() : 0;
+    }
+
+    /**
+     * 获取压缩传输统计信息
+     */
+    public static String getStatus() {
+        StringBuilder sb = new StringBuilder("Transfer - Accept-Encoding: ").append(ACCEPT_ENCODING);
+        COUNTERS.forEach((source, counter) -> {
+            long wire = counter.bytesOnWire.sum();
+            long decoded = counter.bytesDecoded.sum();
+            sb.append(String.format(" [%s: %d bytes on wire, %d bytes decoded, ratio %.1fx]",
+                    source, wire, decoded, wire > 0 ? (double) decoded / wire : 0.0));
+        });
+        return sb.toString();
+    }
+
+    private static class TransferCounter {
+        private final LongAdder bytesOnWire = new LongAdder();
+        private final LongAdder bytesDecoded = new LongAdder();
+    }
+
+    /**
+     * 统计读取字节数的输入流
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private final LongAdder counter;
+
+        CountingInputStream(InputStream in, LongAdder counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                counter.increment();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = super.read(b, off, len);
+            if (read > 0) {
+                counter.add(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                counter.add(skipped);
+            }
+            return skipped;
+        }
+    }
+}
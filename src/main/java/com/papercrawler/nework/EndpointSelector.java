@@ -0,0 +1,162 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 数据源多端点（镜像或区域网关）的选择
+ * 查询URL按主base_url构建，发送前改写为当前得分最好的端点；每个端点维护延迟和错误率的指数滑动平均，
+ * 出错的端点得分变差，后续请求（包括重试）自动转移到其他端点
+ */
+public class EndpointSelector {
+    private static final double ALPHA = 0.2;
+    private static volatile EndpointSelector instance;
+
+    private final List<List<Endpoint>> groups = new ArrayList<>();
+    private final double explorationRate;
+    private final double failurePenaltyMillis;
+
+    private EndpointSelector() {
+        this.explorationRate = CrawlerConfig.getEndpointExplorationRate();
+        // 失败按一次超时计入延迟，避免快速失败的端点因延迟低而被优先选择
+        this.failurePenaltyMillis = CrawlerConfig.getRequestTimeout() * 1000.0;
+        SourceHosts.configuredEndpoints().forEach((source, baseUrls) -> {
+            if (baseUrls.size() > 1) {
+                List<Endpoint> group = new ArrayList<>();
+                for (String baseUrl : baseUrls) {
+                    group.add(new Endpoint(source, baseUrl));
+                }
+                groups.add(Collections.unmodifiableList(group));
+            }
+        });
+    }
+
+    /**
+     * 获取进程内共享的端点选择器实例
+     */
+    public static EndpointSelector getInstance() {
+        if (instance == null) {
+            synchronized (EndpointSelector.class) {
+                if (instance == null) {
+                    instance = new EndpointSelector();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 将URL改写到当前最优的端点，不属于多端点数据源的URL原样返回
+     */
+    public String route(String url) {
+        for (List<Endpoint> group : groups) {
+            for (Endpoint endpoint : group) {
+                if (endpoint.matches(url)) {
+                    Endpoint chosen = choose(group);
+                    return chosen == endpoint ? url : chosen.baseUrl + url.substring(endpoint.baseUrl.length());
+                }
+            }
+        }
+        return url;
+    }
+
+    /**
+     * 选择得分最低的端点，并以较小概率随机选择其他端点，使其统计保持更新
+     */
+    private Endpoint choose(List<Endpoint> group) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < explorationRate) {
+            return group.get(random.nextInt(group.size()));
+        }
+        Endpoint best = group.get(0);
+        double bestScore = best.score();
+        for (int i = 1; i < group.size(); i++) {
+            double score = group.get(i).score();
+            if (score < bestScore) {
+                best = group.get(i);
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 记录发往某个端点的请求结果
+     *
+     * @param url    实际请求的URL（route的返回值）
+     * @param failed 网络错误、5xx或429
+     */
+    public void onResponse(String url, long elapsedNanos, boolean failed) {
+        for (List<Endpoint> group : groups) {
+            for (Endpoint endpoint : group) {
+                if (endpoint.matches(url)) {
+                    endpoint.record(elapsedNanos / 1_000_000.0, failed, failurePenaltyMillis);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取端点选择状态信息
+     */
+    public String getStatus() {
+        StringBuilder sb = new StringBuilder("Endpoints -");
+        if (groups.isEmpty()) {
+            return sb.append(" single endpoint per source").toString();
+        }
+        for (List<Endpoint> group : groups) {
+            for (Endpoint endpoint : group) {
+                sb.append(" [").append(endpoint.source).append(' ').append(endpoint.baseUrl)
+                        .append(": ").append(endpoint.describe()).append(']');
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 单个端点及其统计
+     */
+    private static class Endpoint {
+        private final String source;
+        private final String baseUrl;
+        private double latencyMillis;
+        private double errorRate;
+        private long samples;
+
+        Endpoint(String source, String baseUrl) {
+            this.source = source;
+            this.baseUrl = baseUrl;
+        }
+
+        boolean matches(String url) {
+            return url.startsWith(baseUrl);
+        }
+
+        /**
+         * 得分越低越好；尚无样本的端点得分为0，会被优先尝试
+         */
+        synchronized double score() {
+            return latencyMillis * (1 + 10 * errorRate);
+        }
+
+        synchronized void record(double elapsedMillis, boolean failed, double failurePenaltyMillis) {
+            double millis = failed ? Math.max(elapsedMillis, failurePenaltyMillis) : elapsedMillis;
+            if (samples == 0) {
+                latencyMillis = millis;
+            } else {
+                latencyMillis += ALPHA * (millis - latencyMillis);
+            }
+            errorRate += ALPHA * ((failed ? 1 : 0) - errorRate);
+            samples++;
+        }
+
+        synchronized String describe() {
+            return String.format("latency %.0f ms, errors %.0f%%, samples %d", latencyMillis, errorRate * 100, samples);
+        }
+    }
+}
@@ -0,0 +1,263 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 对冲请求策略：请求超过该主机观测到的延迟分位数（默认p95）仍未返回时，再发出一个相同的请求，
+ * 取先返回的结果并取消另一个
+ * 对冲次数受预算约束，每个首次请求按比例存入额度，额外负载不超过budget_ratio
+ */
+public class HedgePolicy {
+    private static final long TOKEN = 1000; // 预算以千分之一次对冲为单位记账
+    private static final long DECAY_THRESHOLD = 2000; // 样本数达到该值时计数减半，跟随延迟变化
+    private static volatile HedgePolicy instance;
+
+    private final boolean enabled;
+    private final double quantile;
+    private final long minSamples;
+    private final long minDelayNanos;
+    private final long depositPerRequest;
+    private final long maxBalance;
+
+    private final Map<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    private final AtomicLong balance;
+    private final AtomicLong hedgeCount = new AtomicLong(0);
+    private final AtomicLong hedgeWins = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+    private final HostRateLimiter rateLimiter = HostRateLimiter.getInstance();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService executor;
+
+    private HedgePolicy() {
+        this.enabled = CrawlerConfig.isHedgingEnabled();
+        this.quantile = CrawlerConfig.getHedgeQuantile();
+        this.minSamples = CrawlerConfig.getHedgeMinSamples();
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(CrawlerConfig.getHedgeMinDelayMillis());
+        this.depositPerRequest = (long) (CrawlerConfig.getHedgeBudgetRatio() * TOKEN);
+        this.maxBalance = TOKEN * 10;
+        this.balance = new AtomicLong(0);
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hedge-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // 同步传输的对冲请求在独立线程上阻塞执行，数量受预算限制
+        AtomicInteger threadCounter = new AtomicInteger(0);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "hedge-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 获取进程内共享的对冲策略实例
+     */
+    public static HedgePolicy getInstance() {
+        if (instance == null) {
+            synchronized (HedgePolicy.class) {
+                if (instance == null) {
+                    instance = new HedgePolicy();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录一次首次请求，按比例向对冲预算存入额度
+     */
+    public void onRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    /**
+     * 记录主机的请求延迟
+     */
+    public void recordLatency(String url, long elapsedNanos) {
+        LatencyHistogram histogram = latencies.computeIfAbsent(SourceHosts.hostOf(url), h -> new LatencyHistogram());
+        histogram.record(elapsedNanos);
+        if (histogram.count() >= DECAY_THRESHOLD) {
+            histogram.decay();
+        }
+    }
+
+    /**
+     * 计算发出对冲请求前的等待时间，样本不足或未启用时返回-1
+     */
+    public long hedgeDelayNanos(String url) {
+        if (!enabled) {
+            return -1;
+        }
+        LatencyHistogram histogram = latencies.get(SourceHosts.hostOf(url));
+        if (histogram == null || histogram.count() < minSamples) {
+            return -1;
+        }
+        return Math.max(minDelayNanos, histogram.percentile(quantile));
+    }
+
+    /**
+     * 尝试取得一次对冲额度：预算充足且该主机在对应出口上有空闲令牌时才对冲，
+     * 对冲请求不排队等待限流
+     *
+     * @param egress 出口标识（代理地址），直连时为null
+     */
+    boolean tryAcquireHedge(String url, String egress) {
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                break;
+            }
+        }
+        if (!rateLimiter.tryAcquire(url, egress)) {
+            // 限流令牌不足，退还预算
+            balance.accumulateAndGet(TOKEN, (current, refund) -> Math.min(maxBalance, current + refund));
+            rejectedCount.incrementAndGet();
+            return false;
+        }
+        hedgeCount.incrementAndGet();
+        return true;
+    }
+
+    void onHedgeWon() {
+        hedgeWins.incrementAndGet();
+    }
+
+    ScheduledFuture<?> schedule(Runnable task, long delayNanos) {
+        return timer.schedule(task, delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    ExecutorService executor() {
+        return executor;
+    }
+
+    /**
+     * 对异步请求进行对冲：attempt每次调用发出一个新请求
+     * 先成功返回的结果胜出并取消另一个；对冲请求发出后，一个失败时等待另一个，全部失败时返回主请求的异常
+     */
+    public <T> CompletableFuture<T> hedge(String url, Supplier<CompletableFuture<T>> attempt) {
+        if (!enabled) {
+            return attempt.get();
+        }
+        long delayNanos = hedgeDelayNanos(url);
+        onRequest();
+        long startNanos = System.nanoTime();
+        CompletableFuture<T> primary = attempt.get();
+        if (delayNanos < 0) {
+            return primary.whenComplete((value, error) -> {
+                if (error == null) {
+                    recordLatency(url, System.nanoTime() - startNanos);
+                }
+            });
+        }
+
+        AsyncRace<T> race = new AsyncRace<>(primary);
+        ScheduledFuture<?> hedgeTimer = schedule(() -> race.launchHedge(url, attempt), delayNanos);
+        primary.whenComplete((value, error) -> {
+            if (error == null) {
+                if (race.result.complete(value)) {
+                    recordLatency(url, System.nanoTime() - startNanos);
+                }
+            } else {
+                race.onPrimaryFailed(error);
+            }
+            hedgeTimer.cancel(false);
+            race.cancelHedge();
+        });
+        return race.result;
+    }
+
+    /**
+     * 一次异步对冲的主请求与对冲请求
+     */
+    private class AsyncRace<T> {
+        final CompletableFuture<T> result = new CompletableFuture<>();
+        private final CompletableFuture<T> primary;
+        private CompletableFuture<T> hedge;
+        private boolean closed;
+        private Throwable primaryError;
+        private boolean hedgeFailed;
+
+        AsyncRace(CompletableFuture<T> primary) {
+            this.primary = primary;
+        }
+
+        synchronized void launchHedge(String url, Supplier<CompletableFuture<T>> attempt) {
+            if (closed || result.isDone() || !tryAcquireHedge(url, null)) {
+                return;
+            }
+            long startNanos = System.nanoTime();
+            hedge = attempt.get();
+            hedge.whenComplete((value, error) -> {
+                if (error == null) {
+                    if (result.complete(value)) {
+                        onHedgeWon();
+                        recordLatency(url, System.nanoTime() - startNanos);
+                        primary.cancel(true);
+                    }
+                } else {
+                    onHedgeFailed();
+                }
+            });
+        }
+
+        synchronized void onPrimaryFailed(Throwable error) {
+            primaryError = error;
+            // 对冲请求尚未发出时直接失败，交给上层重试
+            if (hedge == null || hedgeFailed) {
+                closed = true;
+                result.completeExceptionally(error);
+            }
+        }
+
+        private synchronized void onHedgeFailed() {
+            hedgeFailed = true;
+            if (primaryError != null) {
+                result.completeExceptionally(primaryError);
+            }
+        }
+
+        synchronized void cancelHedge() {
+            if (result.isDone()) {
+                closed = true;
+                if (hedge != null) {
+                    hedge.cancel(true);
+                }
+            }
+        }
+    }
+
+    /**
+     * 获取对冲策略状态信息
+     */
+    public String getStatus() {
+        if (!enabled) {
+            return "Hedging - disabled";
+        }
+        StringBuilder sb = new StringBuilder(String.format("Hedging - Budget: %.1f, Hedged: %d, Won: %d, Rejected: %d",
+                balance.get() / (double) TOKEN, hedgeCount.get(), hedgeWins.get(), rejectedCount.get()));
+        latencies.forEach((host, histogram) -> sb.append(String.format(" [%s: p%.0f %d ms]", host, quantile * 100,
+                TimeUnit.NANOSECONDS.toMillis(histogram.percentile(quantile)))));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,232 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * 为GET请求增加对冲的传输装饰器
+ * 主请求在调用线程上执行，超过主机的延迟分位数仍未收到响应头时，由HedgePolicy的线程发出相同的请求，
+ * 先收到响应头的一方胜出，另一方被取消
+ */
+class HedgingTransport implements HttpTransport {
+    private final HttpTransport delegate;
+    private final HedgePolicy hedgePolicy = HedgePolicy.getInstance();
+
+    HedgingTransport(HttpTransport delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Call newCall(String method, String url, Map<String, String> headers, String body,
+                        ProxyPool.Proxy proxy) {
+        Call primary = delegate.newCall(method, url, headers, body, proxy);
+        // 只对冲幂等的GET请求
+        if (!"GET".equals(method)) {
+            return primary;
+        }
+        return new HedgedCall(url, proxy != null ? proxy.getId() : null, primary,
+                () -> delegate.newCall(method, url, headers, body, proxy));
+    }
+
+    @Override
+    public String getStatus() {
+        return delegate.getStatus() + ", " + hedgePolicy.getStatus();
+    }
+
+    @Override
+    public void close() throws IOException {
+        delegate.close();
+    }
+
+    /**
+     * 主请求与至多一个对冲请求的竞争
+     */
+    private class HedgedCall implements Call {
+        private final String url;
+        private final String egress;
+        private final Call primary;
+        private final Supplier<Call> hedgeFactory;
+
+        // 以下字段由this保护
+        private Call hedge;
+        private CompletableFuture<Exchange> hedgeResult;
+        private boolean closed;
+        private boolean decided;
+
+        HedgedCall(String url, String egress, Call primary, Supplier<Call> hedgeFactory) {
+            this.url = url;
+            this.egress = egress;
+            this.primary = primary;
+            this.hedgeFactory = hedgeFactory;
+        }
+
+        @Override
+        public Exchange execute() throws IOException {
+            long delayNanos = hedgePolicy.hedgeDelayNanos(url);
+            hedgePolicy.onRequest();
+            long startNanos = System.nanoTime();
+            if (delayNanos < 0) {
+                Exchange exchange = primary.execute();
+                hedgePolicy.recordLatency(url, System.nanoTime() - startNanos);
+                return exchange;
+            }
+
+            ScheduledFuture<?> timer = hedgePolicy.schedule(this::launchHedge, delayNanos);
+            Exchange exchange;
+            try {
+                exchange = primary.execute();
+            } catch (IOException e) {
+                timer.cancel(false);
+                // 主请求失败或被胜出的对冲请求取消，已发出对冲请求时等待其结果
+                CompletableFuture<Exchange> pendingHedge = closeLaunch();
+                if (pendingHedge == null) {
+                    throw e;
+                }
+                return awaitHedge(pendingHedge, e);
+            } catch (RuntimeException e) {
+                timer.cancel(false);
+                cancel();
+                throw e;
+            }
+
+            timer.cancel(false);
+            if (claim(true)) {
+                hedgePolicy.recordLatency(url, System.nanoTime() - startNanos);
+                return exchange;
+            }
+            // 对冲请求先收到响应，或整个请求已被取消
+            try {
+                exchange.discard();
+            } catch (IOException ignored) {
+                // 丢弃落败的响应，关闭失败不影响结果
+            }
+            CompletableFuture<Exchange> pendingHedge = closeLaunch();
+            if (pendingHedge == null) {
+                throw new IOException("Request cancelled: " + url);
+            }
+            return awaitHedge(pendingHedge, null);
+        }
+
+        /**
+         * 由定时器线程调用，预算和限流允许时发出对冲请求
+         */
+        private void launchHedge() {
+            Call call;
+            CompletableFuture<Exchange> result;
+            synchronized (this) {
+                if (closed || decided || !hedgePolicy.tryAcquireHedge(url, egress)) {
+                    return;
+                }
+                call = hedgeFactory.get();
+                result = new CompletableFuture<>();
+                hedge = call;
+                hedgeResult = result;
+            }
+            try {
+                hedgePolicy.executor().execute(() -> runHedge(call, result));
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+        }
+
+        private void runHedge(Call call, CompletableFuture<Exchange> result) {
+            long startNanos = System.nanoTime();
+            try {
+                Exchange exchange = call.execute();
+                if (claim(false)) {
+                    hedgePolicy.onHedgeWon();
+                    hedgePolicy.recordLatency(url, System.nanoTime() - startNanos);
+                    primary.cancel();
+                    result.complete(exchange);
+                } else {
+                    exchange.discard();
+                    result.completeExceptionally(new IOException("Hedged request lost: " + url));
+                }
+            } catch (IOException | RuntimeException e) {
+                result.completeExceptionally(e);
+            } catch (Error e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        /**
+         * 第一个收到响应的一方胜出，主请求胜出时取消已发出的对冲请求
+         */
+        private boolean claim(boolean byPrimary) {
+            Call pendingHedge;
+            synchronized (this) {
+                if (decided) {
+                    return false;
+                }
+                decided = true;
+                pendingHedge = hedge;
+            }
+            if (byPrimary && pendingHedge != null) {
+                pendingHedge.cancel();
+            }
+            return true;
+        }
+
+        /**
+         * 不再发出新的对冲请求，返回已发出的对冲请求的结果
+         */
+        private synchronized CompletableFuture<Exchange> closeLaunch() {
+            closed = true;
+            return hedgeResult;
+        }
+
+        /**
+         * 等待对冲请求的结果，最长等待一个请求超时时间
+         */
+        private Exchange awaitHedge(CompletableFuture<Exchange> pendingHedge, IOException primaryError)
+                throws IOException {
+            try {
+                return pendingHedge.get(CrawlerConfig.getRequestTimeout(), TimeUnit.SECONDS);
+            } catch (TimeoutException e) {
+                cancel();
+                if (primaryError != null) {
+                    throw primaryError;
+                }
+                throw new SocketTimeoutException("Hedged request timed out: " + url);
+            } catch (InterruptedException e) {
+                cancel();
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException("Request interrupted: " + url);
+                interrupted.initCause(e);
+                throw interrupted;
+            } catch (ExecutionException e) {
+                if (primaryError != null) {
+                    throw primaryError;
+                }
+                Throwable cause = e.getCause();
+                throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            Call pendingHedge;
+            synchronized (this) {
+                closed = true;
+                decided = true;
+                pendingHedge = hedge;
+            }
+            primary.cancel();
+            if (pendingHedge != null) {
+                pendingHedge.cancel();
+            }
+        }
+    }
+}
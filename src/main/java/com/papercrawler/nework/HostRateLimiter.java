@@ -0,0 +1,325 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 按主机划分的无锁令牌桶限流器
+ * 采用GCRA算法，每个主机只维护一个理论到达时间，通过CAS预约令牌；
+ * rate_limiter.backend为shared时理论到达时间存放在内存映射文件中，同机的多个进程共享同一个令牌桶
+ */
+public class HostRateLimiter {
+    private static final HostRateLimiter INSTANCE = new HostRateLimiter();
+
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final SharedRateLimitFile sharedFile = openSharedFile();
+
+    private HostRateLimiter() {
+    }
+
+    /**
+     * 获取进程内共享的限流器实例
+     */
+    public static HostRateLimiter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * 异步获取请求许可，令牌不足时返回的Future会在可发送时刻完成，等待期间不占用线程
+     */
+    public CompletableFuture<Void> acquire(String url) {
+        long waitNanos = bucketFor(SourceHosts.hostOf(url), null).reserve();
+        if (waitNanos <= 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { },
+                CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS));
+    }
+
+    /**
+     * 同步获取请求许可，供阻塞式客户端使用
+     * 经代理发出的请求按“主机+出口”分别限流，源站按出口IP统计配额，多个代理可以叠加吞吐
+     *
+     * @param egress 出口标识（代理地址），直连时为null
+     * @return 被中断时返回false
+     */
+    public boolean acquireBlocking(String url, String egress) {
+        long waitNanos = bucketFor(SourceHosts.hostOf(url), egress).reserve();
+        if (waitNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 令牌充足时立即取得许可，否则返回false且不占用令牌
+     *
+     * @param egress 出口标识（代理地址），直连时为null
+     */
+    public boolean tryAcquire(String url, String egress) {
+        return bucketFor(SourceHosts.hostOf(url), egress).tryReserve();
+    }
+
+    /**
+     * 根据服务端返回的限流提示（Retry-After、X-RateLimit-*）暂停对应主机
+     *
+     * @return 暂停的毫秒数，没有提示时返回0
+     */
+    public long onResponse(String url, int statusCode, Function<String, String> headers) {
+        return onResponse(url, null, statusCode, headers);
+    }
+
+    /**
+     * 根据限流提示暂停对应主机在该出口上的请求
+     */
+    public long onResponse(String url, String egress, int statusCode, Function<String, String> headers) {
+        long pauseMillis = 0;
+
+        if (statusCode == 429 || statusCode == 503) {
+            pauseMillis = parseRetryAfter(headers.apply("Retry-After"));
+        }
+
+        String remaining = headers.apply("X-RateLimit-Remaining");
+        if (pauseMillis == 0 && remaining != null && remaining.trim().equals("0")) {
+            pauseMillis = parseRateLimitReset(headers.apply("X-RateLimit-Reset"));
+        }
+
+        if (pauseMillis > 0) {
+            bucketFor(SourceHosts.hostOf(url), egress)
+                    .pauseFor(TimeUnit.MILLISECONDS.toNanos(pauseMillis));
+        }
+        return pauseMillis;
+    }
+
+    private Bucket bucketFor(String host, String egress) {
+        String key = egress != null ? host + "@" + egress : host;
+        return buckets.computeIfAbsent(key, k -> {
+            String source = SourceHosts.sourceOf(host);
+            return new Bucket(CrawlerConfig.getRequestsPerSecond(source), CrawlerConfig.getRateLimitBurst(source),
+                    cellFor(k));
+        });
+    }
+
+    /**
+     * 共享后端可用时使用映射文件中的槽位，否则使用进程内计数
+     */
+    private ArrivalCell cellFor(String key) {
+        if (sharedFile != null) {
+            int offset = sharedFile.slotFor(key);
+            if (offset >= 0) {
+                return new SharedCell(sharedFile, offset);
+            }
+            System.err.println("Shared rate limiter file is full, limiting " + key + " locally");
+        }
+        return new LocalCell();
+    }
+
+    /**
+     * rate_limiter.backend为shared时打开共享文件，失败时退回进程内限流
+     */
+    private static SharedRateLimitFile openSharedFile() {
+        if (!"shared".equalsIgnoreCase(CrawlerConfig.getRateLimiterBackend())) {
+            return null;
+        }
+        String path = CrawlerConfig.getRateLimiterSharedFile();
+        try {
+            return SharedRateLimitFile.open(path);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to open shared rate limiter file " + path + ", falling back to local: "
+                    + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 解析Retry-After头，支持秒数和HTTP日期两种格式
+     */
+    static long parseRetryAfter(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        String trimmed = value.trim();
+        try {
+            return Math.max(0, TimeUnit.SECONDS.toMillis(Long.parseLong(trimmed)));
+        } catch (NumberFormatException e) {
+            try {
+                ZonedDateTime retryAt = ZonedDateTime.parse(trimmed, DateTimeFormatter.RFC_1123_DATE_TIME);
+                return Math.max(0, retryAt.toInstant().toEpochMilli() - System.currentTimeMillis());
+            } catch (DateTimeParseException ignored) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * 解析X-RateLimit-Reset头，数值较大时按Unix时间戳处理，否则按剩余秒数处理
+     */
+    static long parseRateLimitReset(String value) {
+        if (value == null || value.trim().isEmpty()) {
+            return 0;
+        }
+        try {
+            long reset = Long.parseLong(value.trim());
+            if (reset > 1_000_000_000L) {
+                return Math.max(0, TimeUnit.SECONDS.toMillis(reset) - System.currentTimeMillis());
+            }
+            return Math.max(0, TimeUnit.SECONDS.toMillis(reset));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 获取限流器状态信息
+     */
+    public String getStatus() {
+        StringBuilder sb = new StringBuilder("Rate Limiter -");
+        if (sharedFile != null) {
+            sb.append(" shared via ").append(sharedFile.getPath());
+        }
+        if (buckets.isEmpty()) {
+            sb.append(" no hosts");
+        }
+        buckets.forEach((host, bucket) -> sb.append(String.format(" [%s: %.2f req/s, burst %d]",
+                host, bucket.ratePerSecond, bucket.burst)));
+        return sb.toString();
+    }
+
+    /**
+     * 单个主机的令牌桶
+     */
+    private static class Bucket {
+        private final double ratePerSecond;
+        private final int burst;
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        // 理论到达时间（GCRA中的TAT），本地或跨进程共享
+        private final ArrivalCell theoreticalArrival;
+
+        Bucket(double ratePerSecond, int burst, ArrivalCell theoreticalArrival) {
+            this.theoreticalArrival = theoreticalArrival;
+            this.ratePerSecond = ratePerSecond;
+            this.burst = Math.max(1, burst);
+            this.intervalNanos = ratePerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond) : 0;
+            this.toleranceNanos = intervalNanos * (this.burst - 1);
+        }
+
+        /**
+         * 预约一个令牌，返回需要等待的纳秒数
+         */
+        long reserve() {
+            while (true) {
+                long now = theoreticalArrival.now();
+                long tat = theoreticalArrival.get();
+                long earliest = Math.max(now, tat - toleranceNanos);
+                long newTat = Math.max(tat, now) + intervalNanos;
+                if (theoreticalArrival.compareAndSet(tat, newTat)) {
+                    return earliest - now;
+                }
+            }
+        }
+
+        /**
+         * 仅在无需等待时预约令牌
+         */
+        boolean tryReserve() {
+            while (true) {
+                long now = theoreticalArrival.now();
+                long tat = theoreticalArrival.get();
+                if (tat - toleranceNanos > now) {
+                    return false;
+                }
+                if (theoreticalArrival.compareAndSet(tat, Math.max(tat, now) + intervalNanos)) {
+                    return true;
+                }
+            }
+        }
+
+        void pauseFor(long pauseNanos) {
+            long target = theoreticalArrival.now() + pauseNanos + toleranceNanos;
+            while (true) {
+                long tat = theoreticalArrival.get();
+                if (tat >= target || theoreticalArrival.compareAndSet(tat, target)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * 理论到达时间的存储位置及其时间基准
+     */
+    private interface ArrivalCell {
+        long now();
+
+        long get();
+
+        boolean compareAndSet(long expected, long update);
+    }
+
+    /**
+     * 进程内的理论到达时间，基于System.nanoTime
+     */
+    private static class LocalCell implements ArrivalCell {
+        private final AtomicLong value = new AtomicLong(System.nanoTime());
+
+        @Override
+        public long now() {
+            return System.nanoTime();
+        }
+
+        @Override
+        public long get() {
+            return value.get();
+        }
+
+        @Override
+        public boolean compareAndSet(long expected, long update) {
+            return value.compareAndSet(expected, update);
+        }
+    }
+
+    /**
+     * 位于共享内存映射文件中的理论到达时间，基于纪元纳秒
+     */
+    private static class SharedCell implements ArrivalCell {
+        private final SharedRateLimitFile file;
+        private final int offset;
+
+        SharedCell(SharedRateLimitFile file, int offset) {
+            this.file = file;
+            this.offset = offset;
+        }
+
+        @Override
+        public long now() {
+            return SharedRateLimitFile.now();
+        }
+
+        @Override
+        public long get() {
+            return file.get(offset);
+        }
+
+        @Override
+        public boolean compareAndSet(long expected, long update) {
+            return file.compareAndSet(offset, expected, update);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 基于java.net.http的HTTP/2传输
+ * 同一主机的并发请求复用少量连接上的多路复用流，TLS协商不到h2时自动使用HTTP/1.1
+ */
+public class Http2Transport implements HttpTransport {
+    private static final LongAdder HTTP2_RESPONSES = new LongAdder();
+    private static final LongAdder HTTP1_RESPONSES = new LongAdder();
+
+    private final HttpClient httpClient = JdkHttpEngine.shared();
+    private final Duration requestTimeout = Duration.ofSeconds(CrawlerConfig.getRequestTimeout());
+
+    @Override
+    public Call newCall(String method, String url, Map<String, String> headers, String body,
+                        ProxyPool.Proxy proxy) {
+        return new Http2Call(method, url, headers, body, proxy);
+    }
+
+    @Override
+    public String getStatus() {
+        return String.format("Transport: HTTP/2 (java.net.http), Responses: %d over h2, %d over HTTP/1.1",
+                HTTP2_RESPONSES.sum(), HTTP1_RESPONSES.sum());
+    }
+
+    /**
+     * 共享的JDK客户端在进程内复用，不随单个传输关闭
+     */
+    @Override
+    public void close() {
+    }
+
+    /**
+     * 基于sendAsync的请求，取消时同时取消在途的交换
+     * JDK 16之前取消Future只会停止等待，连接上的请求仍会继续到超时
+     */
+    private class Http2Call implements Call {
+        private final String method;
+        private final String url;
+        private final Map<String, String> headers;
+        private final String body;
+        private final ProxyPool.Proxy proxy;
+        private volatile CompletableFuture<HttpResponse<InputStream>> pending;
+        private volatile boolean cancelled;
+
+        Http2Call(String method, String url, Map<String, String> headers, String body, ProxyPool.Proxy proxy) {
+            this.method = method;
+            this.url = url;
+            this.headers = headers;
+            this.body = body;
+            this.proxy = proxy;
+        }
+
+        @Override
+        public Exchange execute() throws IOException {
+            HttpRequest.Builder builder;
+            try {
+                builder = HttpRequest.newBuilder(URI.create(url));
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid URL: " + url, e);
+            }
+            builder.timeout(requestTimeout)
+                    .header("User-Agent", CrawlerConfig.getUserAgent());
+            headers.forEach(builder::header);
+
+            if ("POST".equals(method)) {
+                builder.POST(body != null && !body.isEmpty()
+                        ? HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8)
+                        : HttpRequest.BodyPublishers.noBody());
+            } else {
+                builder.GET();
+            }
+
+            // JDK客户端的代理按实例配置，每个代理使用独立的客户端和连接池
+            HttpClient client = proxy != null ? JdkHttpEngine.proxied(proxy) : httpClient;
+            CompletableFuture<HttpResponse<InputStream>> future = client.sendAsync(builder.build(),
+                    HttpResponse.BodyHandlers.ofInputStream());
+            pending = future;
+            if (cancelled) {
+                future.cancel(true);
+            }
+
+            try {
+                HttpResponse<InputStream> response = future.get();
+                if (response.version() == HttpClient.Version.HTTP_2) {
+                    HTTP2_RESPONSES.increment();
+                } else {
+                    HTTP1_RESPONSES.increment();
+                }
+                return new Http2Exchange(response);
+            } catch (InterruptedException e) {
+                future.cancel(true);
+                Thread.currentThread().interrupt();
+                InterruptedIOException interrupted = new InterruptedIOException("Request interrupted: " + url);
+                interrupted.initCause(e);
+                throw interrupted;
+            } catch (CancellationException e) {
+                throw new IOException("Request cancelled: " + url, e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof CompletionException && cause.getCause() != null) {
+                    cause = cause.getCause();
+                }
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                throw new IOException(cause != null ? cause.getMessage() : "Request failed: " + url, cause);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            CompletableFuture<HttpResponse<InputStream>> future = pending;
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private static class Http2Exchange implements Exchange {
+        private final HttpResponse<InputStream> response;
+
+        Http2Exchange(HttpResponse<InputStream> response) {
+            this.response = response;
+        }
+
+        @Override
+        public int getStatusCode() {
+            return response.statusCode();
+        }
+
+        @Override
+        public String getHeader(String name) {
+            return response.headers().firstValue(name).orElse(null);
+        }
+
+        @Override
+        public InputStream getBody() {
+            return response.body();
+        }
+
+        /**
+         * 关闭响应体流，未读完的HTTP/2流会被取消，连接本身继续复用
+         */
+        @Override
+        public void close() throws IOException {
+            response.body().close();
+        }
+    }
+}
@@ -0,0 +1,472 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 基于磁盘的HTTP条件请求缓存
+ * 按URL保存gzip压缩后的响应体及ETag/Last-Modified校验信息，按总大小进行LRU淘汰
+ */
+public class HttpCache {
+    private static final String BODY_SUFFIX = ".body.gz";
+    private static final String META_SUFFIX = ".meta";
+    private static volatile HttpCache instance;
+
+    private final boolean enabled;
+    private final Path cacheDir;
+    private final long maxSizeBytes;
+    private final LinkedHashMap<String, CacheEntry> index = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentSizeBytes = 0;
+
+    private final AtomicLong hitCount = new AtomicLong(0);
+    private final AtomicLong storeCount = new AtomicLong(0);
+    private final AtomicLong evictionCount = new AtomicLong(0);
+
+    /**
+     * 进程内通常使用getInstance；测试可直接指定目录和容量
+     */
+    HttpCache(boolean enabled, Path cacheDir, long maxSizeBytes) {
+        this.enabled = enabled;
+        this.cacheDir = cacheDir;
+        this.maxSizeBytes = maxSizeBytes;
+        if (enabled) {
+            loadIndex();
+        }
+    }
+
+    /**
+     * 获取进程内共享的缓存实例
+     */
+    public static HttpCache getInstance() {
+        if (instance == null) {
+            synchronized (HttpCache.class) {
+                if (instance == null) {
+                    instance = new HttpCache(CrawlerConfig.isHttpCacheEnabled(),
+                            Paths.get(CrawlerConfig.getHttpCacheDir()),
+                            CrawlerConfig.getHttpCacheMaxSizeMB() * 1024L * 1024L);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 为请求添加If-None-Match/If-Modified-Since条件头
+     */
+    public void addValidators(String url, BiConsumer<String, String> headerSetter) {
+        if (!enabled) {
+            return;
+        }
+        CacheEntry entry;
+        synchronized (this) {
+            entry = index.get(keyOf(url));
+        }
+        if (entry == null) {
+            return;
+        }
+        if (entry.etag != null) {
+            headerSetter.accept("If-None-Match", entry.etag);
+        }
+        if (entry.lastModified != null) {
+            headerSetter.accept("If-Modified-Since", entry.lastModified);
+        }
+    }
+
+    /**
+     * 读取缓存的响应体，用于处理304响应
+     */
+    public Optional<String> readBody(String url) {
+        Optional<InputStream> body = openBody(url);
+        if (!body.isPresent()) {
+            return Optional.empty();
+        }
+        try (InputStream in = body.get()) {
+            return Optional.of(ContentDecoding.readString(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to read cached body for URL: " + url + " - " + e.getMessage());
+            invalidate(url);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 以流的形式打开缓存的响应体，调用方负责关闭
+     */
+    public Optional<InputStream> openBody(String url) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        String key = keyOf(url);
+        synchronized (this) {
+            // get会刷新LRU访问顺序
+            if (index.get(key) == null) {
+                return Optional.empty();
+            }
+        }
+
+        try {
+            InputStream in = new GZIPInputStream(Files.newInputStream(cacheDir.resolve(key + BODY_SUFFIX)), 8192);
+            Files.setLastModifiedTime(cacheDir.resolve(key + META_SUFFIX), FileTime.fromMillis(System.currentTimeMillis()));
+            hitCount.incrementAndGet();
+            return Optional.of(in);
+        } catch (IOException e) {
+            System.err.println("Failed to open cached body for URL: " + url + " - " + e.getMessage());
+            invalidate(url);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 保存响应体，只有带校验信息的响应才值得缓存
+     */
+    public void store(String url, String etag, String lastModified, String body) {
+        CacheWriter writer = openWriter(url, etag, lastModified);
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.write(body.getBytes(StandardCharsets.UTF_8));
+            writer.commit();
+        } catch (IOException e) {
+            writer.abort();
+            System.err.println("Failed to cache response for URL: " + url + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * 打开缓存写入流，响应体边读边写入缓存；不可缓存时返回null
+     */
+    public CacheWriter openWriter(String url, String etag, String lastModified) {
+        if (!enabled || (etag == null && lastModified == null)) {
+            return null;
+        }
+        try {
+            Files.createDirectories(cacheDir);
+            return new CacheWriter(url, keyOf(url), etag, lastModified);
+        } catch (IOException e) {
+            System.err.println("Failed to open cache writer for URL: " + url + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void commitEntry(String url, CacheEntry entry, Path tempBody) throws IOException {
+        Path bodyFile = cacheDir.resolve(entry.key + BODY_SUFFIX);
+        Path metaFile = cacheDir.resolve(entry.key + META_SUFFIX);
+        Files.move(tempBody, bodyFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Path tempMeta = Files.createTempFile(cacheDir, entry.key, ".tmp");
+        try (OutputStream out = Files.newOutputStream(tempMeta)) {
+            entry.toProperties(url).store(out, null);
+        }
+        Files.move(tempMeta, metaFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        synchronized (this) {
+            CacheEntry previous = index.put(entry.key, entry);
+            if (previous != null) {
+                currentSizeBytes -= previous.sizeBytes;
+            }
+            currentSizeBytes += entry.sizeBytes;
+        }
+        storeCount.incrementAndGet();
+        evictIfNeeded();
+    }
+
+    /**
+     * 删除指定URL的缓存
+     */
+    public void invalidate(String url) {
+        if (!enabled) {
+            return;
+        }
+        String key = keyOf(url);
+        CacheEntry removed;
+        synchronized (this) {
+            removed = index.remove(key);
+            if (removed != null) {
+                currentSizeBytes -= removed.sizeBytes;
+            }
+        }
+        deleteFiles(key);
+    }
+
+    private void evictIfNeeded() {
+        List<String> evicted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, CacheEntry>> iterator = index.entrySet().iterator();
+            while (currentSizeBytes > maxSizeBytes && iterator.hasNext()) {
+                CacheEntry eldest = iterator.next().getValue();
+                iterator.remove();
+                currentSizeBytes -= eldest.sizeBytes;
+                evicted.add(eldest.key);
+            }
+        }
+        for (String key : evicted) {
+            deleteFiles(key);
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    private void deleteFiles(String key) {
+        try {
+            Files.deleteIfExists(cacheDir.resolve(key + BODY_SUFFIX));
+            Files.deleteIfExists(cacheDir.resolve(key + META_SUFFIX));
+        } catch (IOException e) {
+            System.err.println("Failed to delete cache entry " + key + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * 启动时从磁盘恢复索引，按文件修改时间还原LRU顺序
+     */
+    private void loadIndex() {
+        if (!Files.isDirectory(cacheDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.filter(path -> path.getFileName().toString().endsWith(META_SUFFIX))
+                    .sorted((a, b) -> Long.compare(a.toFile().lastModified(), b.toFile().lastModified()))
+                    .forEach(this::loadEntry);
+        } catch (IOException e) {
+            System.err.println("Failed to load HTTP cache index: " + e.getMessage());
+        }
+        evictIfNeeded();
+    }
+
+    private void loadEntry(Path metaFile) {
+        String fileName = metaFile.getFileName().toString();
+        String key = fileName.substring(0, fileName.length() - META_SUFFIX.length());
+        Path bodyFile = cacheDir.resolve(key + BODY_SUFFIX);
+
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            if (!Files.exists(bodyFile)) {
+                deleteFiles(key);
+                return;
+            }
+            Properties properties = new Properties();
+            properties.load(in);
+            CacheEntry entry = new CacheEntry(key, properties.getProperty("etag"),
+                    properties.getProperty("last_modified"), Files.size(bodyFile));
+            synchronized (this) {
+                index.put(key, entry);
+                currentSizeBytes += entry.sizeBytes;
+            }
+        } catch (IOException e) {
+            deleteFiles(key);
+        }
+    }
+
+    private static String keyOf(String url) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(url.getBytes(StandardCharsets.UTF_8));
+            StringBuilder sb = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * 获取缓存状态信息
+     */
+    public synchronized String getStatus() {
+        if (!enabled) {
+            return "HTTP Cache - disabled";
+        }
+        return String.format("HTTP Cache - Entries: %d, Size: %.1f/%d MB, 304 Hits: %d, Stores: %d, Evictions: %d",
+                index.size(), currentSizeBytes / (1024.0 * 1024.0), maxSizeBytes / (1024 * 1024),
+                hitCount.get(), storeCount.get(), evictionCount.get());
+    }
+
+    /**
+     * 缓存写入流，内容先gzip写入临时文件，commit后原子替换并加入索引
+     */
+    public class CacheWriter extends OutputStream {
+        private final String url;
+        private final String key;
+        private final String etag;
+        private final String lastModified;
+        private final Path tempBody;
+        private final OutputStream out;
+        private boolean closed = false;
+
+        private CacheWriter(String url, String key, String etag, String lastModified) throws IOException {
+            this.url = url;
+            this.key = key;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.tempBody = Files.createTempFile(cacheDir, key, ".tmp");
+            this.out = new GZIPOutputStream(Files.newOutputStream(tempBody), 8192);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        /**
+         * 包装源输入流，读取的内容同时写入缓存；关闭包装流不会关闭源流
+         * 缓存写入失败（如磁盘已满）只放弃本次缓存，不影响调用方继续读取响应体
+         */
+        public InputStream tee(InputStream source) {
+            return new FilterInputStream(source) {
+                @Override
+                public int read() throws IOException {
+                    int b = super.read();
+                    if (b != -1) {
+                        copyToCache(new byte[]{(byte) b}, 0, 1);
+                    }
+                    return b;
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) throws IOException {
+                    int read = super.read(b, off, len);
+                    if (read > 0) {
+                        copyToCache(b, off, read);
+                    }
+                    return read;
+                }
+
+                @Override
+                public long skip(long n) throws IOException {
+                    // 跳过的内容也需要写入缓存
+                    int read = read(new byte[(int) Math.max(0, Math.min(n, 8192))]);
+                    return Math.max(read, 0);
+                }
+
+                @Override
+                public boolean markSupported() {
+                    return false;
+                }
+
+                @Override
+                public void close() {
+                    // 流的生命周期由HttpClient管理
+                }
+            };
+        }
+
+        private void copyToCache(byte[] b, int off, int len) {
+            if (closed) {
+                return;
+            }
+            try {
+                out.write(b, off, len);
+            } catch (IOException e) {
+                // 只记录一次，之后的数据不再写入
+                System.err.println("Failed to cache response for URL: " + url + " - " + e.getMessage());
+                abort();
+            }
+        }
+
+        /**
+         * 完整写入后提交到缓存，提交失败时丢弃该条目，不向调用方抛出
+         */
+        public void commit() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+                commitEntry(url, new CacheEntry(key, etag, lastModified, Files.size(tempBody)), tempBody);
+            } catch (IOException e) {
+                System.err.println("Failed to cache response for URL: " + url + " - " + e.getMessage());
+                try {
+                    Files.deleteIfExists(tempBody);
+                } catch (IOException deleteError) {
+                    System.err.println("Failed to discard cache file " + tempBody + ": " + deleteError.getMessage());
+                }
+                // 正文可能已替换而元数据未写入，整条删除以免新旧不一致
+                invalidate(url);
+            }
+        }
+
+        /**
+         * 放弃本次写入，例如响应体未读完时
+         */
+        public void abort() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+                Files.deleteIfExists(tempBody);
+            } catch (IOException e) {
+                System.err.println("Failed to discard cache file " + tempBody + ": " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            abort();
+        }
+    }
+
+    /**
+     * 缓存索引条目
+     */
+    private static class CacheEntry {
+        private final String key;
+        private final String etag;
+        private final String lastModified;
+        private final long sizeBytes;
+
+        CacheEntry(String key, String etag, String lastModified, long sizeBytes) {
+            this.key = key;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.sizeBytes = sizeBytes;
+        }
+
+        Properties toProperties(String url) {
+            Properties properties = new Properties();
+            properties.setProperty("url", url);
+            if (etag != null) {
+                properties.setProperty("etag", etag);
+            }
+            if (lastModified != null) {
+                properties.setProperty("last_modified", lastModified);
+            }
+            return properties;
+        }
+    }
+}
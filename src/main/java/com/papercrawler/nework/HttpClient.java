@@ -1,191 +1,463 @@
 package com.papercrawler.network;
 
 import com.papercrawler.config.CrawlerConfig;
-import org.apache.http.HttpEntity;
-import org.apache.http.client.config.RequestConfig;
-import org.apache.http.client.methods.CloseableHttpResponse;
-import org.apache.http.client.methods.HttpGet;
-import org.apache.http.client.methods.HttpPost;
-import org.apache.http.entity.StringEntity;
-import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClients;
-import org.apache.http.util.EntityUtils;
+import org.apache.http.entity.ContentType;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.TimeUnit;
 
 public class HttpClient implements AutoCloseable {
-    private final CloseableHttpClient httpClient;
-    private final RequestConfig requestConfig;
+    private static final BodyConsumer<String> STRING_BODY =
+            body -> ContentDecoding.readString(body, StandardCharsets.UTF_8);
+    private static final BodyConsumer<BufferPool.PooledBody> POOLED_BODY =
+            body -> BufferPool.getInstance().readFully(body, -1);
+    // 进程内共享，不同HttpClient实例对同一URL的并发下载也会合并；每个调用方得到响应体的独立引用，
+    // 全部关闭（TTL内复用的结果在过期清理）后缓冲区才归还
+    private static final SingleFlight<String, Optional<BufferPool.PooledBody>> IN_FLIGHT =
+            new SingleFlight<>(CrawlerConfig.getCoalesceTtlMillis(), Optional::isPresent,
+                    body -> body.map(BufferPool.PooledBody::retain),
+                    body -> body.ifPresent(BufferPool.PooledBody::close));
+
+    private final HttpTransport transport;
+    private final HostRateLimiter rateLimiter = HostRateLimiter.getInstance();
+    private final HttpCache httpCache = HttpCache.getInstance();
+    private final RetryPolicy retryPolicy = RetryPolicy.getInstance();
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.getInstance();
+    private final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.getInstance();
+    private final ProxyPool proxyPool = ProxyPool.getInstance();
+    private final BufferPool bufferPool = BufferPool.getInstance();
+    private final EndpointSelector endpointSelector = EndpointSelector.getInstance();
+    private final NetworkTimings timings = NetworkTimings.getInstance();
 
     public HttpClient() {
-        this.requestConfig = RequestConfig.custom()
-                .setConnectTimeout((int) TimeUnit.SECONDS.toMillis(CrawlerConfig.getRequestTimeout()))
-                .setSocketTimeout((int) TimeUnit.SECONDS.toMillis(CrawlerConfig.getRequestTimeout()))
-                .setConnectionRequestTimeout((int) TimeUnit.SECONDS.toMillis(CrawlerConfig.getRequestTimeout()))
-                .build();
-
-        this.httpClient = HttpClients.custom()
-                .setDefaultRequestConfig(requestConfig)
-                .setUserAgent(CrawlerConfig.getUserAgent())
-                .setMaxConnTotal(CrawlerConfig.getMaxConnections())
-                .setMaxConnPerRoute(CrawlerConfig.getMaxConnections())
-                .build();
+        // 按crawler.http_version选择HTTP/1.1连接池或HTTP/2多路复用传输
+        this.transport = HttpTransport.create();
     }
 
     /**
-     * 执行GET请求
+     * 执行GET请求，相同URL的并发调用共享一次下载
      */
     public Optional<String> get(String url) {
-        return executeWithRetry(url, 0);
+        Optional<BufferPool.PooledBody> body = fetchBody(url);
+        if (body.isEmpty()) {
+            return Optional.empty();
+        }
+        try (BufferPool.PooledBody pooled = body.get()) {
+            return Optional.of(STRING_BODY.consume(pooled.openStream()));
+        } catch (IOException e) {
+            System.err.println("Error reading response body for URL: " + url + " - " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 执行GET请求，解压后的响应体以流的形式直接交给consumer，不生成完整的字符串
+     * consumer可能带有状态，因此不与其他调用合并；需要合并下载时使用fetchBody
+     */
+    public <T> Optional<T> get(String url, BodyConsumer<T> consumer) {
+        return executeWithRetry(url, consumer);
+    }
+
+    /**
+     * 执行GET请求，响应体以流的形式交给consumer，不与其他调用合并
+     * 用于有副作用的consumer（如边解析边推送论文）；重试时consumer可能被再次调用
+     */
+    public <T> Optional<T> stream(String url, BodyConsumer<T> consumer) {
+        return executeWithRetry(url, consumer);
+    }
+
+    /**
+     * 执行GET请求，返回暂存在池化缓冲区中的解压后响应体
+     * 用于下载与解析分离的场景：连接在返回前已归还，调用方（通常在解析线程上）读取完毕后必须关闭以归还缓冲区
+     * 相同URL的并发调用（如节点范围重叠的分布式调度）只下载一次，各自得到同一响应体的独立引用
+     */
+    public Optional<BufferPool.PooledBody> fetchBody(String url) {
+        return IN_FLIGHT.call(url, () -> executeWithRetry(url, POOLED_BODY));
     }
 
     /**
      * 执行POST请求
      */
     public Optional<String> post(String url, String body) {
-        return executePostWithRetry(url, body, 0);
+        return executePostWithRetry(url, body);
     }
 
     /**
      * 带重试机制的GET请求
+     * 每次尝试结束后先释放连接再退避，退避时长由RetryPolicy计算并受全局重试预算约束
      */
-    private Optional<String> executeWithRetry(String url, int retryCount) {
-        if (retryCount >= CrawlerConfig.getRetryAttempts()) {
+    private <T> Optional<T> executeWithRetry(String url, BodyConsumer<T> consumer) {
+        retryPolicy.onRequest();
+        long retryAfterMillis = 0;
+        boolean conditional = true;
+        boolean refetch = false;
+
+        for (int attempt = 0; ; attempt++) {
+            // 数据源配置了镜像时发往当前最优的端点，缓存仍按原始URL记录
+            String target = endpointSelector.route(url);
+            if (refetch) {
+                // 304后缓存条目已丢失，立即重新请求，不计入重试次数也不消耗重试预算
+                refetch = false;
+                attempt--;
+            } else if (!awaitRetry(url, target, attempt, retryAfterMillis)) {
+                return Optional.empty();
+            }
+
+            // 设置请求头
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Accept", "application/json,application/xml,text/xml,text/html");
+            headers.put("Accept-Charset", "UTF-8");
+            headers.put("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING);
+            if (conditional) {
+                httpCache.addValidators(url, headers::put);
+            }
+
+            PhaseTimer timer = timings.begin(target);
+            try {
+                // 熔断打开时快速失败，不再等待限流和重试
+                // 选择出口代理，未启用代理时为直连
+                ProxyPool.Proxy proxy = proxyPool.select();
+                long permitStartNanos = System.nanoTime();
+                if (!acquirePermit(target, proxy)) {
+                    return Optional.empty();
+                }
+                timer.add(NetworkTimings.Phase.RATE_LIMIT, System.nanoTime() - permitStartNanos);
+
+                long startNanos = System.nanoTime();
+                boolean recorded = false;
+                BufferPool.PooledBody pooled = null;
+                try (HttpTransport.Exchange response = transport.execute("GET", target, headers, null, proxy)) {
+                    int statusCode = response.getStatusCode();
+                    timer.headersReceived(statusCode, System.nanoTime() - startNanos);
+                    recordOutcome(target, proxy, statusCode, startNanos);
+                    recorded = true;
+                    retryAfterMillis = rateLimiter.onResponse(target, egressOf(proxy), statusCode, response::getHeader);
+
+                    if (statusCode == 200 && bufferPool.isEnabled()) {
+                        // 先完整读入池化缓冲区，连接在解析前即可归还
+                        long bodyStartNanos = System.nanoTime();
+                        pooled = bufferBody(url, response);
+                        timer.add(NetworkTimings.Phase.BODY, System.nanoTime() - bodyStartNanos);
+                    } else if (statusCode == 200) {
+                        // 边下载边解析，响应体阶段包含解析时间
+                        long bodyStartNanos = System.nanoTime();
+                        try {
+                            return Optional.ofNullable(consumeBody(url, response, consumer));
+                        } finally {
+                            timer.add(NetworkTimings.Phase.BODY, System.nanoTime() - bodyStartNanos);
+                        }
+                    } else if (statusCode == 304) {
+                        // 内容未变化，直接使用缓存；缓存丢失时不带校验头重新发起一次完整请求
+                        Optional<InputStream> cached = httpCache.openBody(url);
+                        if (cached.isPresent()) {
+                            try (InputStream body = cached.get()) {
+                                return Optional.ofNullable(consumer.consume(body));
+                            } catch (IOException e) {
+                                System.err.println("Corrupted cache entry for URL: " + url + " - " + e.getMessage());
+                                httpCache.invalidate(url);
+                            }
+                        }
+                        refetch = conditional;
+                        conditional = false;
+                    } else if (isRetryableStatus(statusCode)) {
+                        // 服务器错误或被限流，重试
+                        System.err.println("Server error " + statusCode + " for URL: " + target + ", retrying...");
+                    } else {
+                        System.err.println("HTTP request failed with status code: " + statusCode + " for URL: " + target);
+                        return Optional.empty();
+                    }
+
+                } catch (IOException e) {
+                    // 网络错误，重试
+                    System.err.println("Error executing request for URL: " + target + " - " + e.getMessage());
+                    if (!recorded) {
+                        recordError(target, proxy, startNanos);
+                    }
+                    retryAfterMillis = 0;
+                } catch (RuntimeException e) {
+                    // 非网络异常不计入统计，但未记录结果时需归还熔断器探测名额和代理
+                    if (!recorded) {
+                        releasePermit(target, proxy);
+                    }
+                    throw e;
+                }
+
+                if (pooled != null) {
+                    if (consumer == POOLED_BODY) {
+                        // 缓冲区的所有权直接转交调用方，不再复制
+                        @SuppressWarnings("unchecked")
+                        T body = (T) pooled;
+                        return Optional.of(body);
+                    }
+                    // 解析器读取只读视图，解析完成后缓冲区归还到池中
+                    try (BufferPool.PooledBody body = pooled) {
+                        return Optional.ofNullable(consumer.consume(body.openStream()));
+                    } catch (IOException e) {
+                        System.err.println("Error reading response body for URL: " + url + " - " + e.getMessage());
+                        return Optional.empty();
+                    }
+                }
+            } finally {
+                timings.finish(timer);
+            }
+        }
+    }
+
+    /**
+     * 重试前的检查与等待：次数上限、目标端点的熔断状态、全局重试预算和退避延迟
+     *
+     * @param target 本次尝试实际发往的端点，熔断状态按它检查
+     */
+    private boolean awaitRetry(String url, String target, int attempt, long retryAfterMillis) {
+        if (attempt >= CrawlerConfig.getRetryAttempts()) {
             System.err.println("Max retry attempts reached for URL: " + url);
-            return Optional.empty();
+            return false;
+        }
+        if (attempt == 0) {
+            return true;
+        }
+        if (circuitBreaker.isOpen(target)) {
+            System.err.println("Circuit open for host " + SourceHosts.hostOf(target) + ", giving up URL: " + url);
+            return false;
+        }
+        if (!retryPolicy.tryAcquireRetry()) {
+            System.err.println("Retry budget exhausted, giving up URL: " + url);
+            return false;
         }
+        return retryPolicy.awaitBackoff(attempt - 1, retryAfterMillis);
+    }
 
-        HttpGet httpGet = new HttpGet(url);
-        httpGet.setConfig(requestConfig);
+    /**
+     * 依次通过熔断器和按主机限流，令牌充足时不等待
+     */
+    private boolean acquirePermit(String url, ProxyPool.Proxy proxy) {
+        if (!circuitBreaker.tryAcquire(url)) {
+            System.err.println("Circuit open for host " + SourceHosts.hostOf(url) + ", skipping URL: " + url);
+            proxyPool.release(proxy);
+            return false;
+        }
+        if (!rateLimiter.acquireBlocking(url, egressOf(proxy))) {
+            releasePermit(url, proxy);
+            return false;
+        }
+        return true;
+    }
 
-        // 设置请求头
-        httpGet.setHeader("Accept", "application/json,application/xml,text/xml,text/html");
-        httpGet.setHeader("Accept-Charset", "UTF-8");
+    /**
+     * 请求未得到结果时归还熔断器许可和代理
+     */
+    private void releasePermit(String url, ProxyPool.Proxy proxy) {
+        circuitBreaker.release(url);
+        proxyPool.release(proxy);
+    }
 
-        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-            int statusCode = response.getStatusLine().getStatusCode();
+    /**
+     * 限流按出口区分：经代理的请求使用代理地址作为出口标识
+     */
+    private static String egressOf(ProxyPool.Proxy proxy) {
+        return proxy != null ? proxy.getId() : null;
+    }
 
-            if (statusCode == 200) {
-                HttpEntity entity = response.getEntity();
-                String responseBody = EntityUtils.toString(entity, "UTF-8");
-                EntityUtils.consume(entity);
+    /**
+     * 将响应结果计入熔断器、自适应并发和端点选择统计
+     * 5xx视为失败，其余状态码说明服务端可用；429/503同时作为拥塞信号
+     */
+    private void recordOutcome(String url, ProxyPool.Proxy proxy, int statusCode, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        endpointSelector.onResponse(url, elapsedNanos, statusCode == 429 || statusCode >= 500);
+        if (statusCode >= 500 && statusCode < 600) {
+            circuitBreaker.onFailure(url, elapsedNanos);
+        } else {
+            circuitBreaker.onSuccess(url, elapsedNanos);
+        }
+        if (statusCode == 429 || statusCode == 503) {
+            concurrencyLimiter.onThrottled(url, elapsedNanos);
+            proxyPool.onThrottled(proxy, elapsedNanos);
+        } else if (statusCode == 407 || statusCode == 502) {
+            // 代理认证失败或代理无法连接上游，计为代理故障
+            concurrencyLimiter.onSuccess(url, elapsedNanos);
+            proxyPool.onFailure(proxy, elapsedNanos);
+        } else {
+            concurrencyLimiter.onSuccess(url, elapsedNanos);
+            proxyPool.onSuccess(proxy, elapsedNanos);
+        }
+    }
 
-                // 添加请求延迟
-                Thread.sleep((long) (CrawlerConfig.getDelayBetweenRequests() * 1000));
+    /**
+     * 网络错误同时计入熔断器失败和拥塞信号
+     */
+    private void recordError(String url, ProxyPool.Proxy proxy, long startNanos) {
+        long elapsedNanos = System.nanoTime() - startNanos;
+        endpointSelector.onResponse(url, elapsedNanos, true);
+        circuitBreaker.onFailure(url, elapsedNanos);
+        concurrencyLimiter.onThrottled(url, elapsedNanos);
+        proxyPool.onFailure(proxy, elapsedNanos);
+    }
 
-                return Optional.of(responseBody);
-            } else if (statusCode >= 500 && statusCode < 600) {
-                // 服务器错误，重试
-                System.err.println("Server error " + statusCode + " for URL: " + url + ", retrying...");
-                Thread.sleep(calculateBackoffDelay(retryCount));
-                return executeWithRetry(url, retryCount + 1);
-            } else {
-                System.err.println("HTTP request failed with status code: " + statusCode + " for URL: " + url);
-                return Optional.empty();
+    /**
+     * 将响应体解压后交给consumer，带校验信息的响应同时写入缓存
+     */
+    private <T> T consumeBody(String url, HttpTransport.Exchange response, BodyConsumer<T> consumer)
+            throws IOException {
+        HttpCache.CacheWriter cacheWriter = httpCache.openWriter(url,
+                response.getHeader("ETag"), response.getHeader("Last-Modified"));
+        try (InputStream decoded = ContentDecoding.decode(response.getBody(),
+                response.getHeader("Content-Encoding"), SourceHosts.hostOf(url))) {
+            if (cacheWriter == null) {
+                return consumer.consume(decoded);
             }
 
-        } catch (IOException | InterruptedException e) {
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-                return Optional.empty();
+            InputStream body = cacheWriter.tee(decoded);
+            T result = consumer.consume(body);
+            // 解析器不一定读到流末尾，读完剩余内容后再提交缓存
+            body.transferTo(OutputStream.nullOutputStream());
+            cacheWriter.commit();
+            return result;
+        } finally {
+            if (cacheWriter != null) {
+                cacheWriter.abort();
             }
+        }
+    }
 
-            System.err.println("Error executing request for URL: " + url + " - " + e.getMessage());
-
-            // 网络错误，重试
-            try {
-                Thread.sleep(calculateBackoffDelay(retryCount));
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                return Optional.empty();
+    /**
+     * 解压响应体并完整读入池化缓冲区，带校验信息的响应同时写入缓存
+     */
+    private BufferPool.PooledBody bufferBody(String url, HttpTransport.Exchange response) throws IOException {
+        String contentEncoding = response.getHeader("Content-Encoding");
+        // 未压缩时Content-Length即为解压后的长度，可一次分配足够的缓冲区
+        long sizeHint = contentEncoding == null ? parseLength(response.getHeader("Content-Length")) : -1;
+        HttpCache.CacheWriter cacheWriter = httpCache.openWriter(url,
+                response.getHeader("ETag"), response.getHeader("Last-Modified"));
+        try (InputStream decoded = ContentDecoding.decode(response.getBody(), contentEncoding,
+                SourceHosts.hostOf(url))) {
+            InputStream body = cacheWriter != null ? cacheWriter.tee(decoded) : decoded;
+            BufferPool.PooledBody pooled = bufferPool.readFully(body, sizeHint);
+            if (cacheWriter != null) {
+                cacheWriter.commit();
             }
+            return pooled;
+        } finally {
+            if (cacheWriter != null) {
+                cacheWriter.abort();
+            }
+        }
+    }
 
-            return executeWithRetry(url, retryCount + 1);
+    private static long parseLength(String contentLength) {
+        if (contentLength == null) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(contentLength.trim()) + 1; // 多留一个字节，读到流末尾时无需再分配
+        } catch (NumberFormatException e) {
+            return -1;
         }
     }
 
     /**
      * 带重试机制的POST请求
      */
-    private Optional<String> executePostWithRetry(String url, String body, int retryCount) {
-        if (retryCount >= CrawlerConfig.getRetryAttempts()) {
-            System.err.println("Max retry attempts reached for URL: " + url);
-            return Optional.empty();
-        }
-
-        HttpPost httpPost = new HttpPost(url);
-        httpPost.setConfig(requestConfig);
-
-        // 设置请求头和请求体
-        httpPost.setHeader("Content-Type", "application/json");
-        httpPost.setHeader("Accept", "application/json");
+    private Optional<String> executePostWithRetry(String url, String body) {
+        retryPolicy.onRequest();
+        long retryAfterMillis = 0;
 
-        if (body != null && !body.isEmpty()) {
-            httpPost.setEntity(new StringEntity(body, "UTF-8"));
-        }
-
-        try (CloseableHttpResponse response = httpClient.execute(httpPost)) {
-            int statusCode = response.getStatusLine().getStatusCode();
+        for (int attempt = 0; ; attempt++) {
+            if (!awaitRetry(url, url, attempt, retryAfterMillis)) {
+                return Optional.empty();
+            }
 
-            if (statusCode == 200 || statusCode == 201) {
-                HttpEntity entity = response.getEntity();
-                String responseBody = EntityUtils.toString(entity, "UTF-8");
-                EntityUtils.consume(entity);
+            // 设置请求头
+            Map<String, String> headers = new LinkedHashMap<>();
+            headers.put("Content-Type", "application/json");
+            headers.put("Accept", "application/json");
+            headers.put("Accept-Encoding", ContentDecoding.ACCEPT_ENCODING);
 
-                Thread.sleep((long) (CrawlerConfig.getDelayBetweenRequests() * 1000));
-                return Optional.of(responseBody);
-            } else if (statusCode >= 500 && statusCode < 600) {
-                System.err.println("Server error " + statusCode + " for URL: " + url + ", retrying...");
-                Thread.sleep(calculateBackoffDelay(retryCount));
-                return executePostWithRetry(url, body, retryCount + 1);
-            } else {
-                System.err.println("HTTP POST failed with status code: " + statusCode + " for URL: " + url);
+            // 选择出口代理，未启用代理时为直连
+            ProxyPool.Proxy proxy = proxyPool.select();
+            if (!acquirePermit(url, proxy)) {
                 return Optional.empty();
             }
 
-        } catch (IOException | InterruptedException e) {
-            if (e instanceof InterruptedException) {
-                Thread.currentThread().interrupt();
-                return Optional.empty();
+            long startNanos = System.nanoTime();
+            boolean recorded = false;
+            try (HttpTransport.Exchange response = transport.execute("POST", url, headers, body, proxy)) {
+                int statusCode = response.getStatusCode();
+                recordOutcome(url, proxy, statusCode, startNanos);
+                recorded = true;
+                retryAfterMillis = rateLimiter.onResponse(url, egressOf(proxy), statusCode, response::getHeader);
+
+                if (statusCode == 200 || statusCode == 201) {
+                    return Optional.of(readBody(url, response));
+                } else if (isRetryableStatus(statusCode)) {
+                    System.err.println("Server error " + statusCode + " for URL: " + url + ", retrying...");
+                } else {
+                    System.err.println("HTTP POST failed with status code: " + statusCode + " for URL: " + url);
+                    return Optional.empty();
+                }
+
+            } catch (IOException e) {
+                System.err.println("Error executing POST request for URL: " + url + " - " + e.getMessage());
+                if (!recorded) {
+                    recordError(url, proxy, startNanos);
+                }
+                retryAfterMillis = 0;
+            } catch (RuntimeException e) {
+                if (!recorded) {
+                    releasePermit(url, proxy);
+                }
+                throw e;
             }
+        }
+    }
 
-            System.err.println("Error executing POST request for URL: " + url + " - " + e.getMessage());
+    /**
+     * 边解压边解码读取POST响应体
+     */
+    private String readBody(String url, HttpTransport.Exchange response) throws IOException {
+        return ContentDecoding.decodeToString(response.getBody(), response.getHeader("Content-Encoding"),
+                SourceHosts.hostOf(url), charsetOf(response.getHeader("Content-Type")));
+    }
 
+    private static Charset charsetOf(String contentType) {
+        if (contentType != null) {
             try {
-                Thread.sleep(calculateBackoffDelay(retryCount));
-            } catch (InterruptedException ie) {
-                Thread.currentThread().interrupt();
-                return Optional.empty();
+                Charset charset = ContentType.parse(contentType).getCharset();
+                if (charset != null) {
+                    return charset;
+                }
+            } catch (RuntimeException ignored) {
+                // 无法识别的Content-Type按UTF-8处理
             }
-
-            return executePostWithRetry(url, body, retryCount + 1);
         }
+        return StandardCharsets.UTF_8;
     }
 
     /**
-     * 计算指数退避延迟
+     * 5xx服务器错误和429限流响应可以重试
      */
-    private long calculateBackoffDelay(int retryCount) {
-        long baseDelay = 1000; // 1秒基础延迟
-        long maxDelay = 30000; // 30秒最大延迟
-        long delay = baseDelay * (1L << retryCount); // 指数退避: 1s, 2s, 4s, 8s...
-        return Math.min(delay, maxDelay);
+    private boolean isRetryableStatus(int statusCode) {
+        return statusCode == 429 || (statusCode >= 500 && statusCode < 600);
     }
 
     /**
      * 检查URL是否可达
      */
     public boolean isUrlReachable(String url) {
-        HttpGet httpHead = new HttpGet(url);
-        httpHead.setConfig(requestConfig);
-
-        try (CloseableHttpResponse response = httpClient.execute(httpHead)) {
-            int statusCode = response.getStatusLine().getStatusCode();
+        ProxyPool.Proxy proxy = proxyPool.select();
+        try (HttpTransport.Exchange response = transport.execute("GET", url, new LinkedHashMap<>(), null, proxy)) {
+            int statusCode = response.getStatusCode();
             return statusCode == 200 || statusCode == 404; // 404也算可达，只是资源不存在
         } catch (IOException e) {
             return false;
+        } finally {
+            proxyPool.release(proxy);
         }
     }
 
@@ -193,21 +465,28 @@ public class HttpClient implements AutoCloseable {
      * 获取响应头信息
      */
     public Optional<String> getHeader(String url, String headerName) {
-        HttpGet httpGet = new HttpGet(url);
-        httpGet.setConfig(requestConfig);
-
-        try (CloseableHttpResponse response = httpClient.execute(httpGet)) {
-            String headerValue = response.getFirstHeader(headerName).getValue();
-            return Optional.ofNullable(headerValue);
+        ProxyPool.Proxy proxy = proxyPool.select();
+        try (HttpTransport.Exchange response = transport.execute("GET", url, new LinkedHashMap<>(), null, proxy)) {
+            return Optional.ofNullable(response.getHeader(headerName));
         } catch (IOException e) {
             return Optional.empty();
+        } finally {
+            proxyPool.release(proxy);
         }
     }
 
+    /**
+     * 响应体消费接口，参数为解压后的响应体流
+     */
+    @FunctionalInterface
+    public interface BodyConsumer<T> {
+        T consume(InputStream body) throws IOException;
+    }
+
     @Override
     public void close() throws IOException {
-        if (httpClient != null) {
-            httpClient.close();
+        if (transport != null) {
+            transport.close();
         }
     }
 
@@ -215,7 +494,10 @@ public class HttpClient implements AutoCloseable {
      * 获取HTTP客户端状态信息
      */
     public String getStatus() {
-        return String.format("HTTP Client - Max Connections: %d, Timeout: %d seconds",
-                CrawlerConfig.getMaxConnections(), CrawlerConfig.getRequestTimeout());
+        return String.format("HTTP Client - Timeout: %d seconds, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s, %s",
+                CrawlerConfig.getRequestTimeout(), transport.getStatus(),
+                rateLimiter.getStatus(), circuitBreaker.getStatus(), concurrencyLimiter.getStatus(),
+                proxyPool.getStatus(), endpointSelector.getStatus(), retryPolicy.getStatus(), IN_FLIGHT.getStatus(), httpCache.getStatus(),
+                ContentDecoding.getStatus(), bufferPool.getStatus(), timings.getStatus());
     }
 }
\ No newline at end of file
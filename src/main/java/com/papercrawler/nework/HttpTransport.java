@@ -0,0 +1,86 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+
+/**
+ * HttpClient底层传输抽象
+ * 屏蔽HTTP/1.1（Apache HttpClient连接池）与HTTP/2（java.net.http多路复用）的差异，
+ * 重试、限流、熔断和缓存逻辑仍由HttpClient统一处理
+ */
+public interface HttpTransport extends Closeable {
+
+    /**
+     * 创建一次可取消的请求
+     *
+     * @param body  请求体，GET请求传null
+     * @param proxy 出口代理，直连时传null
+     */
+    Call newCall(String method, String url, Map<String, String> headers, String body, ProxyPool.Proxy proxy);
+
+    /**
+     * 发送一次请求，返回的Exchange必须关闭以释放连接或流
+     */
+    default Exchange execute(String method, String url, Map<String, String> headers, String body,
+                             ProxyPool.Proxy proxy) throws IOException {
+        return newCall(method, url, headers, body, proxy).execute();
+    }
+
+    /**
+     * 获取传输层状态信息
+     */
+    String getStatus();
+
+    /**
+     * 按crawler.http_version创建传输实现
+     */
+    static HttpTransport create() {
+        HttpTransport transport = CrawlerConfig.isHttp2Enabled() ? new Http2Transport() : new ApacheTransport();
+        return CrawlerConfig.isHedgingEnabled() ? new HedgingTransport(transport) : transport;
+    }
+
+    /**
+     * 尚未完成的请求
+     */
+    interface Call {
+
+        /**
+         * 阻塞执行请求直到收到响应头，每个Call只能执行一次
+         */
+        Exchange execute() throws IOException;
+
+        /**
+         * 取消请求，正在执行或之后执行的execute会抛出IOException
+         */
+        void cancel();
+    }
+
+    /**
+     * 一次请求的响应
+     */
+    interface Exchange extends Closeable {
+
+        int getStatusCode();
+
+        /**
+         * 获取响应头，不存在时返回null
+         */
+        String getHeader(String name);
+
+        /**
+         * 原始响应体（未解压），没有响应体时返回空流
+         */
+        InputStream getBody() throws IOException;
+
+        /**
+         * 放弃响应，不再读取剩余响应体
+         */
+        default void discard() throws IOException {
+            close();
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+import com.papercrawler.util.VirtualThreads;
+
+import java.net.Authenticator;
+import java.net.InetSocketAddress;
+import java.net.PasswordAuthentication;
+import java.net.ProxySelector;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * java.net.http客户端的创建与共享
+ * JDK按HttpClient实例维护连接池，进程内共享一个实例才能复用连接和HTTP/2多路复用会话
+ */
+final class JdkHttpEngine {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+    private static final Map<String, HttpClient> PROXIED = new ConcurrentHashMap<>();
+
+    private JdkHttpEngine() {
+        // 私有构造函数，防止实例化
+    }
+
+    /**
+     * 获取进程内共享的客户端，优先协商HTTP/2，对端不支持时自动回落到HTTP/1.1
+     */
+    static HttpClient shared() {
+        return Shared.CLIENT;
+    }
+
+    /**
+     * 共享客户端使用的回调线程池
+     */
+    static ExecutorService sharedExecutor() {
+        return Shared.EXECUTOR;
+    }
+
+    /**
+     * 解码响应体使用的共享线程池
+     * 解码线程阻塞读取响应体输入流，不能占用回调线程池，否则回调线程全部阻塞时响应数据无法投递
+     */
+    static ExecutorService decodeExecutor() {
+        return Decode.EXECUTOR;
+    }
+
+    /**
+     * 获取经指定代理发出请求的共享客户端，每个代理一个实例
+     * 注意JDK默认禁止HTTPS隧道使用Basic认证，带认证的代理需设置
+     * -Djdk.http.auth.tunneling.disabledSchemes=""
+     */
+    static HttpClient proxied(ProxyPool.Proxy proxy) {
+        return PROXIED.computeIfAbsent(proxy.getId(), id -> create(Shared.EXECUTOR, proxy));
+    }
+
+    /**
+     * 创建独立的客户端
+     */
+    static HttpClient create(ExecutorService executor) {
+        return create(executor, null);
+    }
+
+    private static HttpClient create(ExecutorService executor, ProxyPool.Proxy proxy) {
+        ConnectionPool.applyJdkClientDefaults();
+        HttpClient.Builder builder = HttpClient.newBuilder()
+                .executor(executor)
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofSeconds(CrawlerConfig.getRequestTimeout()))
+                .followRedirects(HttpClient.Redirect.NORMAL);
+        if (proxy != null) {
+            builder.proxy(ProxySelector.of(new InetSocketAddress(proxy.getHost(), proxy.getPort())));
+            if (proxy.hasCredentials()) {
+                builder.authenticator(new Authenticator() {
+                    @Override
+                    protected PasswordAuthentication getPasswordAuthentication() {
+                        if (getRequestorType() != RequestorType.PROXY) {
+                            return null;
+                        }
+                        return new PasswordAuthentication(proxy.getUsername(), proxy.getPassword().toCharArray());
+                    }
+                });
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * 创建回调线程池，线程为守护线程
+     */
+    static ExecutorService newCallbackExecutor(int threadPoolSize) {
+        return Executors.newFixedThreadPool(threadPoolSize, runnable -> {
+            Thread thread = new Thread(runnable, "async-http-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 延迟创建的共享实例
+     */
+    private static class Shared {
+        // virtual模式下回调也运行在虚拟线程上
+        private static final ExecutorService EXECUTOR = CrawlerConfig.isVirtualThreadMode()
+                ? VirtualThreads.newPerTaskExecutor()
+                : newCallbackExecutor(Math.max(2, Runtime.getRuntime().availableProcessors()));
+        private static final HttpClient CLIENT = create(EXECUTOR);
+    }
+
+    /**
+     * 延迟创建的解码线程池，线程数随在途响应数伸缩，在途请求数由并发限制器约束
+     */
+    private static class Decode {
+        private static final ExecutorService EXECUTOR = CrawlerConfig.isVirtualThreadMode()
+                ? VirtualThreads.newPerTaskExecutor()
+                : Executors.newCachedThreadPool(runnable -> {
+                    Thread thread = new Thread(runnable, "async-decode-" + THREAD_COUNTER.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
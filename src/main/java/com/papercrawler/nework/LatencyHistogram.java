@@ -0,0 +1,93 @@
+package com.papercrawler.network;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 无锁的对数分桶延迟直方图
+ * 以微秒为单位，每个2的幂区间再分为4个子桶，相对误差约20%，足以估计p95等分位数
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MAX_EXPONENT = 40; // 约12天，超出的样本计入最后一个桶
+    private static final int BUCKETS = (MAX_EXPONENT + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong(0);
+
+    /**
+     * 记录一个样本
+     */
+    public void record(long nanos) {
+        counts.incrementAndGet(indexOf(TimeUnit.NANOSECONDS.toMicros(nanos)));
+        total.incrementAndGet();
+    }
+
+    /**
+     * 样本总数
+     */
+    public long count() {
+        return total.get();
+    }
+
+    /**
+     * 估计分位数，返回所在桶的上界（纳秒），没有样本时返回0
+     *
+     * @param quantile 0到1之间，例如0.95
+     */
+    public long percentile(double quantile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return TimeUnit.MICROSECONDS.toNanos(upperBoundOf(i));
+            }
+        }
+        return TimeUnit.MICROSECONDS.toNanos(upperBoundOf(BUCKETS - 1));
+    }
+
+    /**
+     * 所有桶计数减半，使统计逐步偏向最近的样本
+     */
+    public void decay() {
+        long remaining = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long halved = counts.updateAndGet(i, c -> c >> 1);
+            remaining += halved;
+        }
+        total.set(remaining);
+    }
+
+    /**
+     * 清空全部样本
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        total.set(0);
+    }
+
+    private static int indexOf(long micros) {
+        long value = Math.max(SUB_BUCKETS, micros);
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return exponent * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBoundOf(int index) {
+        int exponent = index / SUB_BUCKETS;
+        int subBucket = index % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS);
+    }
+}
@@ -0,0 +1,167 @@
+package com.papercrawler.network;
+
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 有界并发的批量GET，按完成顺序发布结果
+ * 同时在途的请求不超过maxInFlight，也不超过订阅者尚未消费的需求，
+ * 每完成一个请求才从URL迭代器中取下一个，内存占用与URL总数无关
+ * URL迭代器只能遍历一次，因此只允许一个订阅者
+ */
+final class MultiGet implements Flow.Publisher<AsyncHttpClient.FetchResult> {
+    private final Iterator<String> urls;
+    private final int maxInFlight;
+    private final Function<String, CompletableFuture<Optional<String>>> fetch;
+    private final AtomicBoolean subscribed = new AtomicBoolean(false);
+
+    MultiGet(Iterator<String> urls, int maxInFlight,
+             Function<String, CompletableFuture<Optional<String>>> fetch) {
+        if (maxInFlight <= 0) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.urls = urls;
+        this.maxInFlight = maxInFlight;
+        this.fetch = fetch;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super AsyncHttpClient.FetchResult> subscriber) {
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onError(new IllegalStateException("MultiGet allows only one subscriber"));
+            return;
+        }
+        Subscription subscription = new Subscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        subscription.drain();
+    }
+
+    /**
+     * 单个订阅的状态
+     * 完成的请求先进入队列，由drain串行地发布结果并补发新请求，订阅者的回调不会并发执行
+     */
+    private class Subscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super AsyncHttpClient.FetchResult> subscriber;
+        private final Queue<AsyncHttpClient.FetchResult> completed = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger wip = new AtomicInteger(0);
+        private final AtomicLong requested = new AtomicLong(0);
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // 以下字段只在drain中访问
+        private int inFlight;
+        private long emitted;
+        private boolean exhausted;
+        private boolean terminated;
+
+        Subscription(Flow.Subscriber<? super AsyncHttpClient.FetchResult> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // 错误也由drain发出，避免与onNext并发调用订阅者
+                if (invalidRequest == null) {
+                    invalidRequest = new IllegalArgumentException("Non-positive request: " + n);
+                }
+                drain();
+                return;
+            }
+            requested.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            // 已发出的请求继续完成（可能与其他调用方共享），结果不再发布
+            cancelled = true;
+        }
+
+        void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                if (terminated) {
+                    return;
+                }
+                if (invalidRequest != null && !cancelled) {
+                    terminated = true;
+                    subscriber.onError(invalidRequest);
+                    return;
+                }
+                AsyncHttpClient.FetchResult result;
+                while ((result = completed.poll()) != null) {
+                    inFlight--;
+                    emitted++;
+                    if (!cancelled) {
+                        subscriber.onNext(result);
+                    }
+                }
+                if (cancelled) {
+                    terminated = true;
+                    return;
+                }
+
+                while (!exhausted && inFlight < maxInFlight && emitted + inFlight < requested.get()) {
+                    String url;
+                    try {
+                        if (!urls.hasNext()) {
+                            exhausted = true;
+                            break;
+                        }
+                        url = urls.next();
+                    } catch (RuntimeException e) {
+                        terminated = true;
+                        subscriber.onError(e);
+                        return;
+                    }
+                    inFlight++;
+                    launch(url);
+                }
+
+                if (exhausted && inFlight == 0) {
+                    terminated = true;
+                    subscriber.onComplete();
+                    return;
+                }
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void launch(String url) {
+            CompletableFuture<Optional<String>> future;
+            try {
+                future = fetch.apply(url);
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((body, error) -> {
+                if (error != null) {
+                    System.err.println("Error fetching URL: " + url + " - " + error.getMessage());
+                }
+                completed.offer(new AsyncHttpClient.FetchResult(url, error == null ? body : Optional.empty()));
+                drain();
+            });
+        }
+    }
+}
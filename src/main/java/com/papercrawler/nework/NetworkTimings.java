@@ -0,0 +1,180 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按主机汇总请求各阶段的耗时，并保留最慢的若干次请求
+ * 阶段包括限流等待、租用连接、DNS、建连、TLS、首字节和响应体下载，用于判断瓶颈在上游、连接池还是自身限速
+ */
+public class NetworkTimings {
+    private static volatile NetworkTimings instance;
+
+    /**
+     * 请求阶段
+     */
+    public enum Phase {
+        RATE_LIMIT("rate-limit"),
+        POOL_LEASE("lease"),
+        DNS("dns"),
+        CONNECT("connect"),
+        TLS("tls"),
+        TTFB("ttfb"),
+        BODY("body");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+    }
+
+    private final boolean enabled;
+    private final int slowLogSize;
+    private final Map<String, LatencyHistogram[]> hosts = new ConcurrentHashMap<>();
+    // 最慢请求的小顶堆，由this保护
+    private final PriorityQueue<SlowRequest> slowest =
+            new PriorityQueue<>(Comparator.comparingLong(request -> request.totalNanos));
+    private volatile long slowThresholdNanos = 0;
+
+    private NetworkTimings() {
+        this.enabled = CrawlerConfig.isTimingEnabled();
+        this.slowLogSize = CrawlerConfig.getTimingSlowLogSize();
+    }
+
+    /**
+     * 获取进程内共享的计时统计实例
+     */
+    public static NetworkTimings getInstance() {
+        if (instance == null) {
+            synchronized (NetworkTimings.class) {
+                if (instance == null) {
+                    instance = new NetworkTimings();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始记录一次请求，当前线程上的计时钩子此后计入该请求，必须调用finish结束
+     */
+    PhaseTimer begin(String url) {
+        PhaseTimer timer = new PhaseTimer(url);
+        if (enabled) {
+            timer.attach();
+        }
+        return timer;
+    }
+
+    /**
+     * 结束一次请求，将各阶段耗时计入主机直方图和慢请求记录
+     */
+    void finish(PhaseTimer timer) {
+        timer.detach();
+        if (!enabled) {
+            return;
+        }
+        LatencyHistogram[] histograms = hosts.computeIfAbsent(SourceHosts.hostOf(timer.getUrl()), h -> {
+            LatencyHistogram[] created = new LatencyHistogram[Phase.values().length];
+            for (int i = 0; i < created.length; i++) {
+                created[i] = new LatencyHistogram();
+            }
+            return created;
+        });
+        for (Phase phase : Phase.values()) {
+            if (timer.has(phase)) {
+                histograms[phase.ordinal()].record(timer.get(phase));
+            }
+        }
+
+        long totalNanos = timer.total();
+        if (slowLogSize > 0 && totalNanos > slowThresholdNanos) {
+            synchronized (this) {
+                slowest.offer(new SlowRequest(totalNanos, timer.describe()));
+                if (slowest.size() > slowLogSize) {
+                    slowest.poll();
+                }
+                // 记录已满时只有超过当前最小值的请求才需要加锁
+                slowThresholdNanos = slowest.size() >= slowLogSize ? slowest.peek().totalNanos : 0;
+            }
+        }
+    }
+
+    /**
+     * 最慢的请求，按耗时从高到低
+     */
+    public List<String> getSlowRequests() {
+        List<SlowRequest> snapshot;
+        synchronized (this) {
+            snapshot = new ArrayList<>(slowest);
+        }
+        snapshot.sort(Comparator.comparingLong((SlowRequest request) -> request.totalNanos).reversed());
+        List<String> lines = new ArrayList<>(snapshot.size());
+        snapshot.forEach(request -> lines.add(request.description));
+        return lines;
+    }
+
+    /**
+     * 获取计时统计状态信息，各阶段给出p50/p95（毫秒）
+     */
+    public String getStatus() {
+        if (!enabled) {
+            return "Timings - disabled";
+        }
+        StringBuilder sb = new StringBuilder("Timings (p50/p95 ms) -");
+        hosts.forEach((host, histograms) -> {
+            sb.append(" [").append(host).append(':');
+            boolean first = true;
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = histograms[phase.ordinal()];
+                if (histogram.count() > 0) {
+                    sb.append(first ? " " : ", ").append(phase.label()).append(' ')
+                            .append(TimeUnit.NANOSECONDS.toMillis(histogram.percentile(0.5))).append('/')
+                            .append(TimeUnit.NANOSECONDS.toMillis(histogram.percentile(0.95)));
+                    first = false;
+                }
+            }
+            sb.append(']');
+        });
+        return sb.toString();
+    }
+
+    /**
+     * 多行报告：各主机的阶段分布和最慢的请求
+     */
+    public String getReport() {
+        StringBuilder sb = new StringBuilder(getStatus());
+        List<String> slowRequests = getSlowRequests();
+        if (!slowRequests.isEmpty()) {
+            sb.append(System.lineSeparator()).append("Slowest requests:");
+            slowRequests.forEach(line -> sb.append(System.lineSeparator()).append("  ").append(line));
+        }
+        return sb.toString();
+    }
+
+    private static class SlowRequest {
+        final long totalNanos;
+        final String description;
+
+        SlowRequest(long totalNanos, String description) {
+            this.totalNanos = totalNanos;
+            this.description = description;
+        }
+    }
+}
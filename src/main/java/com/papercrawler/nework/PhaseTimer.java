@@ -0,0 +1,108 @@
+package com.papercrawler.network;
+
+import com.papercrawler.network.NetworkTimings.Phase;
+
+/**
+ * 单次请求各阶段的耗时记录
+ * 当前线程上进行中的请求通过ThreadLocal暴露给连接池、DNS解析器和套接字工厂的计时钩子，
+ * 只有发起请求的线程会记录，对冲请求线程上的阶段不计入
+ */
+final class PhaseTimer {
+    private static final ThreadLocal<PhaseTimer> CURRENT = new ThreadLocal<>();
+    private static final Phase[] PHASES = Phase.values();
+
+    private final String url;
+    private final long[] nanos = new long[PHASES.length];
+    private int recorded; // 已记录阶段的位掩码
+    private int statusCode = -1;
+
+    PhaseTimer(String url) {
+        this.url = url;
+    }
+
+    /**
+     * 设为当前线程进行中的请求
+     */
+    void attach() {
+        CURRENT.set(this);
+    }
+
+    void detach() {
+        if (CURRENT.get() == this) {
+            CURRENT.remove();
+        }
+    }
+
+    /**
+     * 计入当前线程进行中的请求，没有进行中的请求时忽略
+     */
+    static void record(Phase phase, long elapsedNanos) {
+        PhaseTimer timer = CURRENT.get();
+        if (timer != null) {
+            timer.add(phase, elapsedNanos);
+        }
+    }
+
+    /**
+     * 当前线程进行中的请求在该阶段累计的耗时
+     */
+    static long current(Phase phase) {
+        PhaseTimer timer = CURRENT.get();
+        return timer != null ? timer.nanos[phase.ordinal()] : 0;
+    }
+
+    void add(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += Math.max(0, elapsedNanos);
+        recorded |= 1 << phase.ordinal();
+    }
+
+    /**
+     * 收到响应头，传输层耗时扣除租用连接、DNS、建连和TLS后即为首字节时间
+     */
+    void headersReceived(int statusCode, long executeNanos) {
+        this.statusCode = statusCode;
+        long setupNanos = nanos[Phase.POOL_LEASE.ordinal()] + nanos[Phase.DNS.ordinal()]
+                + nanos[Phase.CONNECT.ordinal()] + nanos[Phase.TLS.ordinal()];
+        add(Phase.TTFB, executeNanos - setupNanos);
+    }
+
+    boolean has(Phase phase) {
+        return (recorded & (1 << phase.ordinal())) != 0;
+    }
+
+    long get(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * 各阶段耗时之和，不含解析时间
+     */
+    long total() {
+        long total = 0;
+        for (long value : nanos) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * 形如"1234 ms 200 url [ttfb 900, body 300]"的单行描述
+     */
+    String describe() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(total() / 1_000_000).append(" ms ").append(statusCode >= 0 ? String.valueOf(statusCode) : "error")
+                .append(' ').append(url).append(" [");
+        boolean first = true;
+        for (Phase phase : PHASES) {
+            if (has(phase)) {
+                sb.append(first ? "" : ", ").append(phase.label()).append(' ').append(get(phase) / 1_000_000);
+                first = false;
+            }
+        }
+        return sb.append(']').toString();
+    }
+}
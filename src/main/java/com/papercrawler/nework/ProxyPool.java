@@ -0,0 +1,296 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按健康度打分的代理池
+ * 每个代理维护延迟、错误率和限流率的指数滑动平均，选择时随机取两个健康代理比较得分（P2C），
+ * 连续失败或错误率过高的代理会被暂时剔除，剔除期满后重新参与选择
+ */
+public class ProxyPool {
+    private static final double ALPHA = 0.2;
+    private static final double INITIAL_LATENCY_MILLIS = 100.0;
+    private static final int MIN_SAMPLES_FOR_ERROR_RATE = 10;
+    private static final int MAX_EJECTION_MULTIPLIER = 10;
+
+    private static volatile ProxyPool instance;
+
+    private final List<Proxy> proxies;
+    private final int ejectAfterFailures;
+    private final double maxErrorRate;
+    private final long ejectionNanos;
+
+    private ProxyPool() {
+        this.ejectAfterFailures = Math.max(1, CrawlerConfig.getProxyEjectAfterFailures());
+        this.maxErrorRate = CrawlerConfig.getProxyMaxErrorRate();
+        this.ejectionNanos = TimeUnit.SECONDS.toNanos(CrawlerConfig.getProxyEjectionSeconds());
+        this.proxies = CrawlerConfig.isProxyEnabled() ? loadProxies() : Collections.emptyList();
+    }
+
+    /**
+     * 获取进程内共享的代理池实例
+     */
+    public static ProxyPool getInstance() {
+        if (instance == null) {
+            synchronized (ProxyPool.class) {
+                if (instance == null) {
+                    instance = new ProxyPool();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 读取[[proxy.pool]]，未配置代理池时退回到[proxy]中的单个代理
+     */
+    private static List<Proxy> loadProxies() {
+        List<Proxy> loaded = new ArrayList<>();
+        for (Map<String, Object> entry : CrawlerConfig.getProxyPool()) {
+            Object host = entry.get("host");
+            if (host == null || host.toString().isEmpty()) {
+                System.err.println("Ignoring proxy pool entry without host: " + entry);
+                continue;
+            }
+            Object port = entry.get("port");
+            Object weight = entry.get("weight");
+            loaded.add(new Proxy(host.toString(),
+                    port instanceof Number ? ((Number) port).intValue() : 8080,
+                    stringOrEmpty(entry.get("username")), stringOrEmpty(entry.get("password")),
+                    weight instanceof Number ? ((Number) weight).doubleValue() : 1.0));
+        }
+        if (loaded.isEmpty() && !CrawlerConfig.getProxyHost().isEmpty()) {
+            loaded.add(new Proxy(CrawlerConfig.getProxyHost(), CrawlerConfig.getProxyPort(),
+                    CrawlerConfig.getProxyUsername(), CrawlerConfig.getProxyPassword(), 1.0));
+        }
+        return Collections.unmodifiableList(loaded);
+    }
+
+    private static String stringOrEmpty(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    /**
+     * 是否启用了代理
+     */
+    public boolean isEnabled() {
+        return !proxies.isEmpty();
+    }
+
+    /**
+     * 获取全部代理（包括被剔除的）
+     */
+    public List<Proxy> getProxies() {
+        return proxies;
+    }
+
+    /**
+     * 为下一次请求选择代理，未启用代理时返回null
+     * 选中的代理必须通过onSuccess、onThrottled、onFailure或release之一归还
+     */
+    public Proxy select() {
+        if (proxies.isEmpty()) {
+            return null;
+        }
+        long now = System.nanoTime();
+        List<Proxy> healthy = new ArrayList<>(proxies.size());
+        for (Proxy proxy : proxies) {
+            if (!proxy.isEjected(now)) {
+                healthy.add(proxy);
+            }
+        }
+
+        Proxy chosen;
+        if (healthy.isEmpty()) {
+            // 全部被剔除时选择最早恢复的代理，而不是让请求直接失败
+            chosen = proxies.get(0);
+            for (Proxy proxy : proxies) {
+                if (proxy.ejectedUntil() < chosen.ejectedUntil()) {
+                    chosen = proxy;
+                }
+            }
+        } else if (healthy.size() == 1) {
+            chosen = healthy.get(0);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int i = random.nextInt(healthy.size());
+            int j = random.nextInt(healthy.size() - 1);
+            if (j >= i) {
+                j++;
+            }
+            Proxy first = healthy.get(i);
+            Proxy second = healthy.get(j);
+            chosen = first.score() <= second.score() ? first : second;
+        }
+        chosen.begin();
+        return chosen;
+    }
+
+    /**
+     * 请求正常完成
+     */
+    public void onSuccess(Proxy proxy, long latencyNanos) {
+        if (proxy != null) {
+            proxy.record(latencyNanos, false, false, ejectAfterFailures, maxErrorRate, ejectionNanos);
+        }
+    }
+
+    /**
+     * 请求被目标站点限流（429/503），说明该出口IP的配额已用尽
+     */
+    public void onThrottled(Proxy proxy, long latencyNanos) {
+        if (proxy != null) {
+            proxy.record(latencyNanos, false, true, ejectAfterFailures, maxErrorRate, ejectionNanos);
+        }
+    }
+
+    /**
+     * 连接失败、超时或代理返回错误
+     */
+    public void onFailure(Proxy proxy, long latencyNanos) {
+        if (proxy != null) {
+            proxy.record(latencyNanos, true, false, ejectAfterFailures, maxErrorRate, ejectionNanos);
+        }
+    }
+
+    /**
+     * 选中代理后请求未实际发出时归还
+     */
+    public void release(Proxy proxy) {
+        if (proxy != null) {
+            proxy.end();
+        }
+    }
+
+    /**
+     * 获取代理池状态信息
+     */
+    public String getStatus() {
+        StringBuilder sb = new StringBuilder("Proxy Pool -");
+        if (proxies.isEmpty()) {
+            return sb.append(" direct").toString();
+        }
+        long now = System.nanoTime();
+        for (Proxy proxy : proxies) {
+            sb.append(" [").append(proxy.getId()).append(": ").append(proxy.describe(now)).append(']');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 单个代理及其健康统计
+     */
+    public static class Proxy {
+        private final String host;
+        private final int port;
+        private final String username;
+        private final String password;
+        private final double weight;
+
+        private double latencyMillis = INITIAL_LATENCY_MILLIS;
+        private double errorRate;
+        private double throttleRate;
+        private long samples;
+        private int consecutiveFailures;
+        private int inFlight;
+        private long ejectedUntil;
+        private int ejections;
+
+        Proxy(String host, int port, String username, String password, double weight) {
+            this.host = host;
+            this.port = port;
+            this.username = username;
+            this.password = password;
+            this.weight = weight > 0 ? weight : 1.0;
+        }
+
+        public String getHost() {
+            return host;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public boolean hasCredentials() {
+            return username != null && !username.isEmpty();
+        }
+
+        /**
+         * 代理标识，用于限流桶和连接池路由的区分
+         */
+        public String getId() {
+            return host + ":" + port;
+        }
+
+        synchronized void begin() {
+            inFlight++;
+        }
+
+        synchronized void end() {
+            inFlight = Math.max(0, inFlight - 1);
+        }
+
+        /**
+         * 得分越低越好：延迟按在途请求数放大，再按错误率和限流率惩罚，最后按权重缩放
+         */
+        synchronized double score() {
+            return latencyMillis * (1 + inFlight) * (1 + 5 * errorRate + 2 * throttleRate) / weight;
+        }
+
+        synchronized boolean isEjected(long now) {
+            return ejectedUntil != 0 && now - ejectedUntil < 0;
+        }
+
+        synchronized long ejectedUntil() {
+            return ejectedUntil;
+        }
+
+        synchronized void record(long latencyNanos, boolean failed, boolean throttled,
+                                 int ejectAfterFailures, double maxErrorRate, long ejectionNanos) {
+            inFlight = Math.max(0, inFlight - 1);
+            samples++;
+            if (!failed) {
+                latencyMillis += ALPHA * (latencyNanos / 1_000_000.0 - latencyMillis);
+            }
+            errorRate += ALPHA * ((failed ? 1 : 0) - errorRate);
+            throttleRate += ALPHA * ((throttled ? 1 : 0) - throttleRate);
+            consecutiveFailures = failed ? consecutiveFailures + 1 : 0;
+
+            long now = System.nanoTime();
+            boolean unhealthy = consecutiveFailures >= ejectAfterFailures
+                    || (samples >= MIN_SAMPLES_FOR_ERROR_RATE && errorRate > maxErrorRate);
+            if (unhealthy && !isEjected(now)) {
+                ejections++;
+                long multiplier = Math.min(MAX_EJECTION_MULTIPLIER, 1L << Math.min(ejections - 1, 30));
+                ejectedUntil = now + ejectionNanos * multiplier;
+                // 恢复后从较温和的统计重新开始，避免一次失败就再次被剔除
+                consecutiveFailures = 0;
+                errorRate = maxErrorRate / 2;
+                System.err.println("Proxy ejected: " + getId() + " for "
+                        + TimeUnit.NANOSECONDS.toSeconds(ejectionNanos * multiplier) + " seconds");
+            }
+        }
+
+        synchronized String describe(long now) {
+            return String.format("%s, latency %.0f ms, errors %.0f%%, throttled %.0f%%, in flight %d, ejected %d times",
+                    isEjected(now) ? "EJECTED" : "healthy", latencyMillis, errorRate * 100, throttleRate * 100,
+                    inFlight, ejections);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 重试策略：全抖动指数退避、Retry-After支持和全局重试预算
+ * 退避等待由共享的定时器线程驱动，异步调用方在等待期间不占用线程
+ */
+public class RetryPolicy {
+    private static final long TOKEN = 1000; // 预算以千分之一次重试为单位记账
+    private static volatile RetryPolicy instance;
+
+    private final ScheduledExecutorService timer;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final long depositPerRequest;
+    private final long refillPerSecond;
+    private final long maxBalance;
+
+    private final AtomicLong balance;
+    private final AtomicLong lastRefillNanos = new AtomicLong(System.nanoTime());
+    private final AtomicLong retryCount = new AtomicLong(0);
+    private final AtomicLong rejectedCount = new AtomicLong(0);
+
+    private RetryPolicy() {
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.baseDelayMillis = CrawlerConfig.getRetryBaseDelayMillis();
+        this.maxDelayMillis = CrawlerConfig.getRetryMaxDelayMillis();
+        this.depositPerRequest = (long) (CrawlerConfig.getRetryBudgetRatio() * TOKEN);
+        this.refillPerSecond = (long) (CrawlerConfig.getRetryBudgetMinPerSecond() * TOKEN);
+        this.maxBalance = Math.max(TOKEN, refillPerSecond * 10);
+        this.balance = new AtomicLong(maxBalance);
+    }
+
+    /**
+     * 获取进程内共享的重试策略实例
+     */
+    public static RetryPolicy getInstance() {
+        if (instance == null) {
+            synchronized (RetryPolicy.class) {
+                if (instance == null) {
+                    instance = new RetryPolicy();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 记录一次首次请求，按比例向重试预算存入额度
+     */
+    public void onRequest() {
+        balance.accumulateAndGet(depositPerRequest, (current, deposit) -> Math.min(maxBalance, current + deposit));
+    }
+
+    /**
+     * 尝试从全局预算中取出一次重试额度，预算耗尽时返回false
+     */
+    public boolean tryAcquireRetry() {
+        refill();
+        while (true) {
+            long current = balance.get();
+            if (current < TOKEN) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            if (balance.compareAndSet(current, current - TOKEN)) {
+                retryCount.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 按每秒最低重试次数补充预算，保证低流量时仍可重试
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        long last = lastRefillNanos.get();
+        long amount = (now - last) * refillPerSecond / TimeUnit.SECONDS.toNanos(1);
+        if (amount > 0 && lastRefillNanos.compareAndSet(last, now)) {
+            balance.accumulateAndGet(amount, (current, deposit) -> Math.min(maxBalance, current + deposit));
+        }
+    }
+
+    /**
+     * 计算退避延迟：服务端给出Retry-After时以其为准，否则在[0, min(上限, 基数*2^n)]内随机
+     */
+    public long backoffMillis(int attempt, long retryAfterMillis) {
+        if (retryAfterMillis > 0) {
+            return Math.min(retryAfterMillis, TimeUnit.MINUTES.toMillis(10));
+        }
+        long ceiling = Math.min(maxDelayMillis, baseDelayMillis * (1L << Math.min(attempt, 30)));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * 返回一个在延迟结束后完成的Future，由定时器线程驱动
+     */
+    public CompletableFuture<Void> schedule(long delayMillis) {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        if (delayMillis <= 0) {
+            future.complete(null);
+        } else {
+            timer.schedule(() -> future.complete(null), delayMillis, TimeUnit.MILLISECONDS);
+        }
+        return future;
+    }
+
+    /**
+     * 同步客户端的退避等待，被中断时返回false
+     */
+    public boolean awaitBackoff(int attempt, long retryAfterMillis) {
+        try {
+            schedule(backoffMillis(attempt, retryAfterMillis)).get();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 获取重试策略状态信息
+     */
+    public String getStatus() {
+        return String.format("Retry Budget - Available: %.1f, Retries: %d, Rejected: %d",
+                balance.get() / (double) TOKEN, retryCount.get(), rejectedCount.get());
+    }
+}
@@ -0,0 +1,115 @@
+package com.papercrawler.network;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 通过内存映射文件在同一台机器的多个爬虫进程之间共享限流状态
+ * 文件头之后是定长的槽位表，每个槽位存放键的64位哈希和GCRA理论到达时间，
+ * 槽位通过开放寻址分配，读写均为映射内存上的原子操作（CAS），不需要文件锁
+ * 时间基准为Unix纪元纳秒，各进程的理论到达时间可以直接比较
+ */
+final class SharedRateLimitFile {
+    private static final long MAGIC = 0x50435254_4C494D31L; // "PCRTLIM1"
+    private static final int HEADER_BYTES = 64;
+    private static final int SLOT_BYTES = 16;
+    private static final int SLOT_COUNT = 1024;
+    private static final VarHandle LONGS =
+            MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    // 进程内单调的纪元时间：启动时对齐一次墙上时钟，之后按nanoTime推进
+    private static final long EPOCH_ANCHOR_NANOS = TimeUnit.MILLISECONDS.toNanos(System.currentTimeMillis());
+    private static final long NANO_ANCHOR = System.nanoTime();
+
+    private final MappedByteBuffer buffer;
+    private final String path;
+
+    private SharedRateLimitFile(MappedByteBuffer buffer, String path) {
+        this.buffer = buffer;
+        this.path = path;
+    }
+
+    /**
+     * 打开（不存在时创建）共享限流文件
+     */
+    static SharedRateLimitFile open(String path) throws IOException {
+        File file = new File(path);
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Failed to create directory: " + parent);
+        }
+        long size = HEADER_BYTES + (long) SLOT_BYTES * SLOT_COUNT;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < size) {
+                raf.setLength(size);
+            }
+            // 映射在通道关闭后依然有效
+            MappedByteBuffer buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, size);
+            long magic = (long) LONGS.getVolatile(buffer, 0);
+            if (magic == 0) {
+                LONGS.compareAndSet(buffer, 0, 0L, MAGIC);
+            } else if (magic != MAGIC) {
+                throw new IOException("Not a rate limiter file: " + path);
+            }
+            return new SharedRateLimitFile(buffer, path);
+        }
+    }
+
+    /**
+     * 当前的纪元纳秒时间
+     */
+    static long now() {
+        return EPOCH_ANCHOR_NANOS + (System.nanoTime() - NANO_ANCHOR);
+    }
+
+    /**
+     * 查找或分配键对应的槽位，返回理论到达时间字段的偏移量，槽位已满时返回-1
+     */
+    int slotFor(String key) {
+        long hash = hash(key);
+        int start = (int) Long.remainderUnsigned(hash, SLOT_COUNT);
+        for (int i = 0; i < SLOT_COUNT; i++) {
+            int offset = HEADER_BYTES + ((start + i) % SLOT_COUNT) * SLOT_BYTES;
+            long current = (long) LONGS.getVolatile(buffer, offset);
+            if (current == 0 && LONGS.compareAndSet(buffer, offset, 0L, hash)) {
+                return offset + 8;
+            }
+            if (current == hash || (long) LONGS.getVolatile(buffer, offset) == hash) {
+                return offset + 8;
+            }
+        }
+        return -1;
+    }
+
+    long get(int offset) {
+        return (long) LONGS.getVolatile(buffer, offset);
+    }
+
+    boolean compareAndSet(int offset, long expected, long update) {
+        return LONGS.compareAndSet(buffer, offset, expected, update);
+    }
+
+    String getPath() {
+        return path;
+    }
+
+    /**
+     * 64位FNV-1a哈希，0保留为空槽位标记
+     */
+    private static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash != 0 ? hash : 1;
+    }
+}
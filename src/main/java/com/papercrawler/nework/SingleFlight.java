@@ -0,0 +1,226 @@
+package com.papercrawler.network;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * 相同key的并发请求合并
+ * 同一时刻只有一个调用方（leader）真正执行加载，其余调用方共享同一个Future；
+ * 配置了TTL时，成功的结果在完成后的TTL内继续复用。共享的结果应视为只读
+ */
+public class SingleFlight<K, V> {
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final Predicate<V> cacheable;
+    private final UnaryOperator<V> share;
+    private final Consumer<V> release;
+
+    private final AtomicLong leaders = new AtomicLong(0);
+    private final AtomicLong shared = new AtomicLong(0);
+
+    /**
+     * @param ttlMillis 结果完成后继续复用的毫秒数，0表示只合并在途请求
+     * @param cacheable 判断结果是否可以在TTL内复用，不可复用的结果完成后立即移除
+     */
+    public SingleFlight(long ttlMillis, Predicate<V> cacheable) {
+        this(ttlMillis, cacheable, UnaryOperator.identity(), value -> {
+        });
+    }
+
+    /**
+     * 用于持有需要归还的资源的结果（如池化缓冲区），只适用于同步call
+     * 每个调用方得到share创建的独立引用；结果不再能被新的调用方加入、且所有调用方都已取得引用后交给release
+     *
+     * @param share   为每个调用方创建结果的引用
+     * @param release 释放加载得到的结果
+     */
+    public SingleFlight(long ttlMillis, Predicate<V> cacheable, UnaryOperator<V> share, Consumer<V> release) {
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, ttlMillis));
+        this.cacheable = cacheable;
+        this.share = share;
+        this.release = release;
+    }
+
+    /**
+     * 异步合并：没有在途请求时调用loader发起请求，否则返回在途请求的Future
+     */
+    public CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> loader) {
+        Flight<V> flight = join(key);
+        if (flight.leader) {
+            try {
+                loader.get().whenComplete((value, error) -> complete(key, flight, value, error));
+            } catch (RuntimeException e) {
+                complete(key, flight, null, e);
+            } catch (Error e) {
+                complete(key, flight, null, e);
+                throw e;
+            }
+        }
+        return flight.future;
+    }
+
+    /**
+     * 同步合并：leader在调用线程上执行loader，其余调用方阻塞等待同一结果
+     */
+    public V call(K key, Supplier<V> loader) {
+        Flight<V> flight = join(key);
+        try {
+            return share.apply(flight.leader ? load(key, flight, loader) : await(flight));
+        } finally {
+            // 调用方已取得自己的引用（或已失败），不再需要共享的结果
+            unreference(flight);
+        }
+    }
+
+    private V load(K key, Flight<V> flight, Supplier<V> loader) {
+        V value = null;
+        Throwable error = null;
+        try {
+            value = loader.get();
+            return value;
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            // 包括Error在内的任何异常都必须完成共享的Future，否则等待中的调用方会一直阻塞
+            complete(key, flight, value, error);
+        }
+    }
+
+    private V await(Flight<V> flight) {
+        try {
+            return flight.future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 加入已有的请求，或者登记为新的leader
+     */
+    private Flight<V> join(K key) {
+        while (true) {
+            Flight<V> existing = flights.get(key);
+            // 已被移除且结果已释放的记录不能再加入
+            if (existing != null && !existing.isExpired() && existing.reference()) {
+                shared.incrementAndGet();
+                return existing.follower();
+            }
+            Flight<V> created = new Flight<>(ttlNanos);
+            boolean registered = existing == null
+                    ? flights.putIfAbsent(key, created) == null
+                    : flights.replace(key, existing, created);
+            if (registered) {
+                if (existing != null) {
+                    unreference(existing);
+                }
+                leaders.incrementAndGet();
+                // 每次真正加载时顺带清理过期的结果，使其持有的资源及时释放
+                purgeExpired();
+                return created;
+            }
+        }
+    }
+
+    private void complete(K key, Flight<V> flight, V value, Throwable error) {
+        if (error == null && ttlNanos > 0 && cacheable.test(value)) {
+            flight.completedAt = System.nanoTime();
+        } else if (flights.remove(key, flight)) {
+            unreference(flight);
+        }
+        if (error != null) {
+            flight.future.completeExceptionally(error);
+        } else {
+            flight.future.complete(value);
+        }
+    }
+
+    /**
+     * 释放一个引用，最后一个引用释放时结果交给release
+     */
+    private void unreference(Flight<V> flight) {
+        if (flight.references.decrementAndGet() == 0
+                && flight.future.isDone() && !flight.future.isCompletedExceptionally()) {
+            release.accept(flight.future.join());
+        }
+    }
+
+    private void purgeExpired() {
+        for (Map.Entry<K, Flight<V>> entry : flights.entrySet()) {
+            if (entry.getValue().isExpired() && flights.remove(entry.getKey(), entry.getValue())) {
+                unreference(entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 获取请求合并统计信息
+     */
+    public String getStatus() {
+        return String.format("Single Flight - In Flight/Cached: %d, Loads: %d, Shared: %d",
+                flights.size(), leaders.get(), shared.get());
+    }
+
+    /**
+     * 一次在途（或在TTL内复用）的请求
+     */
+    private static class Flight<V> {
+        private final CompletableFuture<V> future;
+        private final long ttlNanos;
+        private final boolean leader;
+        // 在Map中的登记和尚未取得结果的调用方各占一个引用，降为0后不能再加入
+        private final AtomicInteger references;
+        // 完成时间，0表示仍在途中
+        private volatile long completedAt;
+
+        Flight(long ttlNanos) {
+            this(new CompletableFuture<>(), ttlNanos, true, new AtomicInteger(2));
+        }
+
+        private Flight(CompletableFuture<V> future, long ttlNanos, boolean leader, AtomicInteger references) {
+            this.future = future;
+            this.ttlNanos = ttlNanos;
+            this.leader = leader;
+            this.references = references;
+        }
+
+        Flight<V> follower() {
+            return new Flight<>(future, ttlNanos, false, references);
+        }
+
+        /**
+         * 为新的调用方增加引用，结果已释放时返回false
+         */
+        boolean reference() {
+            while (true) {
+                int current = references.get();
+                if (current == 0) {
+                    return false;
+                }
+                if (references.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isExpired() {
+            long completed = completedAt;
+            return completed != 0 && System.nanoTime() - completed >= ttlNanos;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据源与主机名之间的映射工具
+ */
+public final class SourceHosts {
+    /** 未匹配到任何数据源时使用的默认配置段 */
+    public static final String DEFAULT_SOURCE = "crawler";
+
+    private SourceHosts() {
+        // 私有构造函数，防止实例化
+    }
+
+    /**
+     * 从URL中提取主机名，无法解析时返回原始字符串
+     */
+    public static String hostOf(String url) {
+        if (url == null) {
+            return "";
+        }
+        try {
+            String host = URI.create(url).getHost();
+            return host != null ? host.toLowerCase() : url;
+        } catch (IllegalArgumentException e) {
+            return url;
+        }
+    }
+
+    /**
+     * 获取已配置的数据源及其主机名
+     */
+    public static Map<String, String> configuredHosts() {
+        Map<String, String> hosts = new LinkedHashMap<>();
+        configuredBaseUrls().forEach((source, baseUrl) -> hosts.put(source, hostOf(baseUrl)));
+        return hosts;
+    }
+
+    /**
+     * 获取已配置的数据源及其API基础URL
+     */
+    public static Map<String, String> configuredBaseUrls() {
+        Map<String, String> baseUrls = new LinkedHashMap<>();
+        putIfPresent(baseUrls, "arxiv", CrawlerConfig.getArxivBaseUrl());
+        putIfPresent(baseUrls, "biorxiv", CrawlerConfig.getBiorxivBaseUrl());
+        putIfPresent(baseUrls, "chemrxiv", CrawlerConfig.getChemRxivBaseUrl());
+        return baseUrls;
+    }
+
+    /**
+     * 获取已配置的数据源及其全部等价端点，主base_url在前，其后为mirrors
+     */
+    public static Map<String, List<String>> configuredEndpoints() {
+        Map<String, List<String>> endpoints = new LinkedHashMap<>();
+        configuredBaseUrls().forEach((source, baseUrl) -> {
+            List<String> urls = new ArrayList<>();
+            urls.add(baseUrl);
+            for (String mirror : CrawlerConfig.getMirrorUrls(source)) {
+                if (mirror != null && !mirror.isEmpty() && !urls.contains(mirror)) {
+                    urls.add(mirror);
+                }
+            }
+            endpoints.put(source, urls);
+        });
+        return endpoints;
+    }
+
+    /**
+     * 根据主机名查找对应的数据源名称，镜像端点的主机归属同一数据源
+     */
+    public static String sourceOf(String host) {
+        for (Map.Entry<String, List<String>> entry : configuredEndpoints().entrySet()) {
+            for (String baseUrl : entry.getValue()) {
+                if (hostOf(baseUrl).equalsIgnoreCase(host)) {
+                    return entry.getKey();
+                }
+            }
+        }
+        return DEFAULT_SOURCE;
+    }
+
+    private static void putIfPresent(Map<String, String> baseUrls, String source, String baseUrl) {
+        if (baseUrl != null && !baseUrl.isEmpty()) {
+            baseUrls.put(source, baseUrl);
+        }
+    }
+}
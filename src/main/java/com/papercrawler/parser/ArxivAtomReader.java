@@ -0,0 +1,234 @@
+package com.papercrawler.parser;
+
+import com.papercrawler.model.Author;
+import com.papercrawler.model.Paper;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 基于StAX的arXiv Atom流式解析
+ * 顺序读取事件，每个entry结束时立即生成Paper交给回调，内存占用只与单个entry的大小有关；
+ * 字段提取规则与Jsoup实现保持一致（文本空白折叠、primary_category的term属性、title为pdf的链接）
+ */
+class ArxivAtomReader {
+    private static final String ARXIV_NS = "http://arxiv.org/schemas/atom";
+    private static final XMLInputFactory FACTORY = createFactory();
+
+    private static XMLInputFactory createFactory() {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        // 不处理DTD和外部实体
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, true);
+        return factory;
+    }
+
+    /**
+     * 读取整个feed，返回交给consumer的论文数量
+     */
+    int read(InputStream content, Consumer<Paper> consumer) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(content, "UTF-8");
+        try {
+            return readFeed(reader, consumer);
+        } finally {
+            reader.close();
+        }
+    }
+
+    int read(Reader content, Consumer<Paper> consumer) throws XMLStreamException {
+        XMLStreamReader reader = FACTORY.createXMLStreamReader(content);
+        try {
+            return readFeed(reader, consumer);
+        } finally {
+            reader.close();
+        }
+    }
+
+    private int readFeed(XMLStreamReader reader, Consumer<Paper> consumer) throws XMLStreamException {
+        int count = 0;
+        while (reader.hasNext()) {
+            if (reader.next() == XMLStreamConstants.START_ELEMENT && "entry".equals(reader.getLocalName())) {
+                Paper paper = readEntry(reader);
+                if (paper != null) {
+                    consumer.accept(paper);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 读取到entry结束标签为止，字段缺失或格式错误时跳过该entry
+     */
+    private Paper readEntry(XMLStreamReader reader) throws XMLStreamException {
+        EntryFields fields = new EntryFields();
+        int depth = 1;
+        boolean inAuthor = false;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+                if ("author".equals(reader.getLocalName())) {
+                    inAuthor = false;
+                }
+                continue;
+            }
+            if (event != XMLStreamConstants.START_ELEMENT) {
+                continue;
+            }
+            depth++;
+            String name = reader.getLocalName();
+            switch (name) {
+                case "id":
+                case "title":
+                case "summary":
+                case "published":
+                case "updated":
+                    // readText会读到该元素的结束标签
+                    fields.append(name, readText(reader));
+                    depth--;
+                    break;
+                case "author":
+                    inAuthor = true;
+                    break;
+                case "name":
+                    if (inAuthor) {
+                        fields.authors.add(ParserUtils.collapseWhitespace(readText(reader)));
+                        depth--;
+                    }
+                    break;
+                case "primary_category":
+                    if (ARXIV_NS.equals(reader.getNamespaceURI()) && fields.primaryCategory == null) {
+                        String term = reader.getAttributeValue(null, "term");
+                        fields.primaryCategory = term != null ? term : "";
+                    }
+                    break;
+                case "link":
+                    String title = reader.getAttributeValue(null, "title");
+                    if (fields.pdfUrl == null && title != null && "pdf".equalsIgnoreCase(title.trim())) {
+                        String href = reader.getAttributeValue(null, "href");
+                        fields.pdfUrl = href != null ? href : "";
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+        return fields.toPaper();
+    }
+
+    /**
+     * 读取当前元素（包括子元素）的全部文本，返回时停在该元素的结束标签
+     */
+    private static String readText(XMLStreamReader reader) throws XMLStreamException {
+        StringBuilder sb = new StringBuilder();
+        int depth = 1;
+        while (depth > 0) {
+            switch (reader.next()) {
+                case XMLStreamConstants.START_ELEMENT:
+                    depth++;
+                    break;
+                case XMLStreamConstants.END_ELEMENT:
+                    depth--;
+                    break;
+                case XMLStreamConstants.CHARACTERS:
+                case XMLStreamConstants.CDATA:
+                case XMLStreamConstants.SPACE:
+                case XMLStreamConstants.ENTITY_REFERENCE:
+                    sb.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                default:
+                    break;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 单个entry中收集到的原始字段
+     */
+    private class EntryFields {
+        private final StringBuilder id = new StringBuilder();
+        private final StringBuilder title = new StringBuilder();
+        private final StringBuilder summary = new StringBuilder();
+        private final StringBuilder published = new StringBuilder();
+        private final StringBuilder updated = new StringBuilder();
+        private final List<String> authors = new ArrayList<>();
+        private String primaryCategory;
+        private String pdfUrl;
+
+        /**
+         * 同名元素出现多次时与Jsoup一致，以空格连接
+         */
+        void append(String name, String text) {
+            StringBuilder target = fieldOf(name);
+            if (target.length() > 0) {
+                target.append(' ');
+            }
+            target.append(text);
+        }
+
+        private StringBuilder fieldOf(String name) {
+            switch (name) {
+                case "id":
+                    return id;
+                case "title":
+                    return title;
+                case "summary":
+                    return summary;
+                case "published":
+                    return published;
+                default:
+                    return updated;
+            }
+        }
+
+        Paper toPaper() {
+            try {
+                Paper paper = new Paper();
+                paper.setSource("arxiv");
+                paper.setId(ArxivParser.extractArxivId(ParserUtils.collapseWhitespace(id)));
+                paper.setTitle(ParserUtils.collapseWhitespace(title));
+                paper.setSummary(ParserUtils.collapseWhitespace(summary));
+
+                List<Author> authorList = new ArrayList<>(authors.size());
+                for (String author : authors) {
+                    authorList.add(new Author(author));
+                }
+                paper.setAuthors(authorList);
+
+                List<String> categories = new ArrayList<>();
+                if (primaryCategory != null && !primaryCategory.isEmpty()) {
+                    categories.add(primaryCategory);
+                }
+                paper.setCategories(categories);
+
+                String publishedText = ParserUtils.collapseWhitespace(published);
+                if (!publishedText.isEmpty()) {
+                    paper.setPublishedDate(ParserUtils.ARXIV_DATE.decode(publishedText));
+                }
+                String updatedText = ParserUtils.collapseWhitespace(updated);
+                if (!updatedText.isEmpty()) {
+                    paper.setUpdatedDate(ParserUtils.ARXIV_DATE.decode(updatedText));
+                }
+
+                if (pdfUrl != null) {
+                    paper.setPdfUrl(pdfUrl);
+                }
+                return paper;
+            } catch (Exception e) {
+                System.err.println("Error parsing arXiv entry: " + e.getMessage());
+                return null;
+            }
+        }
+    }
+}
@@ -8,35 +8,70 @@ import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.jsoup.select.Elements;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import javax.xml.stream.XMLStreamException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class ArxivParser implements PaperParser {
-    private static final DateTimeFormatter ARXIV_DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    // 为null时使用Jsoup构建完整DOM
+    private final ArxivAtomReader atomReader;
+
+    /**
+     * arxiv.parser为stax时使用流式解析，jsoup时构建完整DOM
+     */
+    public ArxivParser() {
+        this(!"jsoup".equalsIgnoreCase(CrawlerConfig.getArxivParser()));
+    }
 
-    @Override
-    public List<Paper> parsePapers(String content) {
-        List<Paper> papers = new ArrayList<>();
+    ArxivParser(boolean streaming) {
+        this.atomReader = streaming ? new ArxivAtomReader() : null;
+    }
 
+    @Override
+    public int parsePapers(String content, Consumer<Paper> consumer) {
         try {
-            Document doc = Jsoup.parse(content);
-            Elements entries = doc.select("entry");
+            if (atomReader != null) {
+                return atomReader.read(new StringReader(content), consumer);
+            }
+            return parseDocument(Jsoup.parse(content), consumer);
+        } catch (XMLStreamException e) {
+            throw new RuntimeException("Failed to parse arXiv response", e);
+        }
+    }
 
-            for (Element entry : entries) {
-                Paper paper = parseEntry(entry);
-                if (paper != null) {
-                    papers.add(paper);
-                }
+    @Override
+    public int parsePapers(InputStream content, Consumer<Paper> consumer) {
+        try {
+            if (atomReader != null) {
+                return atomReader.read(content, consumer);
             }
-        } catch (Exception e) {
+            return parseDocument(Jsoup.parse(content, "UTF-8", ""), consumer);
+        } catch (XMLStreamException | IOException e) {
             throw new RuntimeException("Failed to parse arXiv response", e);
         }
+    }
 
-        return papers;
+    /**
+     * Jsoup需要先构建完整DOM，论文在遍历entry时逐个交给consumer
+     */
+    private int parseDocument(Document doc, Consumer<Paper> consumer) {
+        int count = 0;
+        Elements entries = doc.select("entry");
+
+        for (Element entry : entries) {
+            Paper paper = parseEntry(entry);
+            if (paper != null) {
+                consumer.accept(paper);
+                count++;
+            }
+        }
+
+        return count;
     }
 
     private Paper parseEntry(Element entry) {
@@ -49,11 +84,11 @@ public class ArxivParser implements PaperParser {
             paper.setId(extractArxivId(id));
 
             // 解析标题
-            String title = entry.select("title").text().replaceAll("\\s+", " ").trim();
+            String title = ParserUtils.collapseWhitespace(entry.select("title").text());
             paper.setTitle(title);
 
             // 解析摘要
-            String summary = entry.select("summary").text().replaceAll("\\s+", " ").trim();
+            String summary = ParserUtils.collapseWhitespace(entry.select("summary").text());
             paper.setSummary(summary);
 
             // 解析作者
@@ -75,12 +110,12 @@ public class ArxivParser implements PaperParser {
             // 解析日期
             String publishedStr = entry.select("published").text();
             if (!publishedStr.isEmpty()) {
-                paper.setPublishedDate(LocalDateTime.parse(publishedStr, ARXIV_DATE_FORMATTER));
+                paper.setPublishedDate(ParserUtils.ARXIV_DATE.decode(publishedStr));
             }
 
             String updatedStr = entry.select("updated").text();
             if (!updatedStr.isEmpty()) {
-                paper.setUpdatedDate(LocalDateTime.parse(updatedStr, ARXIV_DATE_FORMATTER));
+                paper.setUpdatedDate(ParserUtils.ARXIV_DATE.decode(updatedStr));
             }
 
             // 解析PDF链接
@@ -97,7 +132,7 @@ public class ArxivParser implements PaperParser {
         }
     }
 
-    private String extractArxivId(String idText) {
+    static String extractArxivId(String idText) {
         // 从完整URL中提取arXiv ID
         int lastSlash = idText.lastIndexOf('/');
         if (lastSlash != -1) {
@@ -123,6 +158,15 @@ public class ArxivParser implements PaperParser {
     @Override
     public Optional<Paper> parsePaper(String content) {
         try {
+            if (atomReader != null) {
+                List<Paper> papers = new ArrayList<>(1);
+                atomReader.read(new StringReader(content), paper -> {
+                    if (papers.isEmpty()) {
+                        papers.add(paper);
+                    }
+                });
+                return papers.stream().findFirst();
+            }
             Document doc = Jsoup.parse(content);
             Element entry = doc.select("entry").first();
             if (entry != null) {
@@ -3,80 +3,147 @@ package com.papercrawler.parser;
 import com.papercrawler.model.Paper;
 import com.papercrawler.model.Author;
 import com.papercrawler.config.CrawlerConfig;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class BiorxivParser implements PaperParser {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
     @Override
-    public List<Paper> parsePapers(String content) {
-        List<Paper> papers = new ArrayList<>();
+    public int parsePapers(String content, Consumer<Paper> consumer) {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            return parseRoot(parser, consumer);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse bioRxiv response", e);
+        }
+    }
 
-        try {
-            JsonNode root = objectMapper.readTree(content);
-            JsonNode collection = root.path("collection");
+    @Override
+    public int parsePapers(InputStream content, Consumer<Paper> consumer) {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            return parseRoot(parser, consumer);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse bioRxiv response", e);
+        }
+    }
 
-            if (collection.isArray()) {
-                for (JsonNode item : collection) {
-                    Paper paper = parsePaperItem(item);
+    /**
+     * 逐个token读取响应，collection中的每一项读完即生成Paper，其他字段整体跳过
+     */
+    private int parseRoot(JsonParser parser, Consumer<Paper> consumer) throws IOException {
+        int count = 0;
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return count;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("collection".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    Paper paper = parsePaperItem(parser);
                     if (paper != null) {
-                        papers.add(paper);
+                        consumer.accept(paper);
+                        count++;
                     }
                 }
+            } else {
+                parser.skipChildren();
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse bioRxiv response", e);
         }
-
-        return papers;
+        return count;
     }
 
-    private Paper parsePaperItem(JsonNode item) {
+    /**
+     * 读取一项论文，解析器位于该项的第一个token上，返回时位于该项的最后一个token
+     */
+    private Paper parsePaperItem(JsonParser parser) throws IOException {
+        // 字段缺失时与JsonNode.path(...).asText()一致，取空串
+        String doi = "";
+        String title = "";
+        String summary = "";
+        String authorsStr = "";
+        String category = "";
+        String dateStr = "";
+        String jatsXml = "";
+        int version = 1;
+
+        if (parser.currentToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                parser.nextToken();
+                switch (field) {
+                    case "doi":
+                        doi = JsonValues.asText(parser);
+                        break;
+                    case "title":
+                        title = JsonValues.collapsedText(parser);
+                        break;
+                    case "abstract":
+                        summary = JsonValues.collapsedText(parser);
+                        break;
+                    case "authors":
+                        authorsStr = JsonValues.asText(parser);
+                        break;
+                    case "category":
+                        category = JsonValues.asText(parser);
+                        break;
+                    case "date":
+                        dateStr = JsonValues.asText(parser);
+                        break;
+                    case "jatsxml":
+                        jatsXml = JsonValues.asText(parser);
+                        break;
+                    case "version":
+                        version = JsonValues.asInt(parser, 1);
+                        break;
+                    default:
+                        parser.skipChildren();
+                        break;
+                }
+            }
+        } else {
+            parser.skipChildren();
+        }
+
         try {
             Paper paper = new Paper();
             paper.setSource("biorxiv");
 
             // 解析基本字段
-            paper.setId(item.path("doi").asText());
-            paper.setTitle(item.path("title").asText().replaceAll("\\s+", " ").trim());
-            paper.setSummary(item.path("abstract").asText().replaceAll("\\s+", " ").trim());
-            paper.setDoi(item.path("doi").asText());
+            paper.setId(doi);
+            paper.setTitle(title);
+            paper.setSummary(summary);
+            paper.setDoi(doi);
 
             // 解析作者
-            String authorsStr = item.path("authors").asText();
             paper.setAuthors(parseAuthors(authorsStr));
 
             // 解析分类
-            String category = item.path("category").asText();
             if (!category.isEmpty()) {
                 paper.getCategories().add(category);
             }
 
             // 解析日期
-            String dateStr = item.path("date").asText();
             if (!dateStr.isEmpty()) {
-                paper.setPublishedDate(LocalDateTime.parse(dateStr + "T00:00:00Z",
-                        DateTimeFormatter.ISO_DATE_TIME));
+                paper.setPublishedDate(ParserUtils.BIORXIV_DATE.decode(dateStr));
                 paper.setUpdatedDate(paper.getPublishedDate());
             }
 
             // 解析PDF URL
-            String jatsXml = item.path("jatsxml").asText();
             if (!jatsXml.isEmpty()) {
                 paper.setPdfUrl(jatsXml.replace(".xml", ".pdf"));
             }
 
             // 解析版本
-            paper.setVersion(item.path("version").asInt(1));
+            paper.setVersion(version);
 
             return paper;
 
@@ -94,14 +161,18 @@ public class BiorxivParser implements PaperParser {
         }
 
         // bioRxiv作者格式通常是"LastName1 FirstName1, LastName2 FirstName2"
-        String[] authorNames = authorsStr.split(",\\s*");
-
-        for (String authorName : authorNames) {
-            if (!authorName.trim().isEmpty()) {
+        // 按逗号切分后去掉首尾空白，不经过正则
+        int start = 0;
+        while (start <= authorsStr.length()) {
+            int comma = authorsStr.indexOf(',', start);
+            int end = comma < 0 ? authorsStr.length() : comma;
+            String authorName = authorsStr.substring(start, end).trim();
+            if (!authorName.isEmpty()) {
                 Author author = new Author();
-                author.setName(authorName.trim());
+                author.setName(authorName);
                 authors.add(author);
             }
+            start = end + 1;
         }
 
         return authors;
@@ -122,10 +193,11 @@ public class BiorxivParser implements PaperParser {
 
     @Override
     public Optional<Paper> parsePaper(String content) {
-        try {
-            JsonNode item = objectMapper.readTree(content);
-            Paper paper = parsePaperItem(item);
-            return Optional.ofNullable(paper);
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            if (parser.nextToken() == null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(parsePaperItem(parser));
         } catch (Exception e) {
             return Optional.empty();
         }
@@ -3,101 +3,195 @@ package com.papercrawler.parser;
 import com.papercrawler.model.Paper;
 import com.papercrawler.model.Author;
 import com.papercrawler.config.CrawlerConfig;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public class ChemRxivParser implements PaperParser {
-    private static final ObjectMapper objectMapper = new ObjectMapper();
-    private static final DateTimeFormatter DATE_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
 
     @Override
-    public List<Paper> parsePapers(String content) {
-        List<Paper> papers = new ArrayList<>();
+    public int parsePapers(String content, Consumer<Paper> consumer) {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            return parseRoot(parser, consumer);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse ChemRxiv response", e);
+        }
+    }
 
-        try {
-            JsonNode root = objectMapper.readTree(content);
-            JsonNode itemHits = root.path("itemHits");
-
-            if (itemHits.isArray()) {
-                for (JsonNode hit : itemHits) {
-                    JsonNode item = hit.path("item");
-                    if (item.isObject()) {
-                        Paper paper = parsePaperItem(item);
-                        if (paper != null) {
-                            papers.add(paper);
-                        }
+    @Override
+    public int parsePapers(InputStream content, Consumer<Paper> consumer) {
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            return parseRoot(parser, consumer);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to parse ChemRxiv response", e);
+        }
+    }
+
+    /**
+     * 逐个token读取响应，itemHits中每一项的item读完即生成Paper，其他字段整体跳过
+     */
+    private int parseRoot(JsonParser parser, Consumer<Paper> consumer) throws IOException {
+        int count = 0;
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            return count;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("itemHits".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() != JsonToken.END_ARRAY) {
+                    Paper paper = parseHit(parser);
+                    if (paper != null) {
+                        consumer.accept(paper);
+                        count++;
                     }
                 }
+            } else {
+                parser.skipChildren();
             }
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to parse ChemRxiv response", e);
         }
+        return count;
+    }
 
-        return papers;
+    /**
+     * 读取itemHits中的一项，只有item为对象时才生成Paper
+     */
+    private Paper parseHit(JsonParser parser) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        Paper paper = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if (!"item".equals(field)) {
+                parser.skipChildren();
+            } else if (value == JsonToken.START_OBJECT) {
+                paper = parsePaperItem(parser);
+            } else {
+                // 与按树解析一致，重复的字段以最后一个为准
+                paper = null;
+                parser.skipChildren();
+            }
+        }
+        return paper;
     }
 
-    private Paper parsePaperItem(JsonNode item) {
+    /**
+     * 读取一篇论文对象，解析器位于START_OBJECT上，返回时位于对应的END_OBJECT
+     */
+    private Paper parsePaperItem(JsonParser parser) throws IOException {
+        // 字段缺失时与JsonNode.path(...).asText()一致，取空串
+        String id = "";
+        String title = "";
+        String doi = "";
+        String description = null;
+        List<Author> authors = null;
+        List<String> categories = new ArrayList<>();
+        String publishedDateStr = "";
+        String updatedDateStr = "";
+        String pdfUrl = null;
+        int version = 1;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "id":
+                    id = JsonValues.asText(parser);
+                    break;
+                case "title":
+                    title = JsonValues.collapsedText(parser);
+                    break;
+                case "doi":
+                    doi = JsonValues.asText(parser);
+                    break;
+                case "description":
+                    description = JsonValues.textOrNull(parser);
+                    break;
+                case "authors":
+                    if (value == JsonToken.START_ARRAY) {
+                        authors = parseAuthors(parser);
+                    } else {
+                        authors = null;
+                        parser.skipChildren();
+                    }
+                    break;
+                case "categories":
+                    categories.clear();
+                    if (value == JsonToken.START_ARRAY) {
+                        while (parser.nextToken() != JsonToken.END_ARRAY) {
+                            categories.add(JsonValues.asText(parser));
+                        }
+                    } else {
+                        parser.skipChildren();
+                    }
+                    break;
+                case "publishedDate":
+                    publishedDateStr = JsonValues.asText(parser);
+                    break;
+                case "updatedDate":
+                    updatedDateStr = JsonValues.asText(parser);
+                    break;
+                case "pdfUrl":
+                    pdfUrl = JsonValues.textOrNull(parser);
+                    break;
+                case "version":
+                    version = JsonValues.asInt(parser, 1);
+                    break;
+                default:
+                    parser.skipChildren();
+                    break;
+            }
+        }
+
         try {
             Paper paper = new Paper();
             paper.setSource("chemrxiv");
 
             // 解析基本字段
-            paper.setId(item.path("id").asText());
-            paper.setTitle(item.path("title").asText().replaceAll("\\s+", " ").trim());
-            paper.setDoi(item.path("doi").asText());
+            paper.setId(id);
+            paper.setTitle(title);
+            paper.setDoi(doi);
 
             // 解析摘要
-            if (item.has("description") && item.get("description").isTextual()) {
-                paper.setSummary(item.get("description").asText().replaceAll("\\s+", " ").trim());
+            if (description != null) {
+                paper.setSummary(ParserUtils.collapseWhitespace(description));
             }
 
             // 解析作者
-            if (item.has("authors") && item.get("authors").isArray()) {
-                List<Author> authors = new ArrayList<>();
-                for (JsonNode authorNode : item.get("authors")) {
-                    Author author = new Author();
-                    String firstName = authorNode.path("firstName").asText();
-                    String lastName = authorNode.path("lastName").asText();
-                    author.setName((firstName + " " + lastName).trim());
-                    author.setAffiliation(authorNode.path("affiliation").asText());
-                    author.setOrcid(authorNode.path("orcid").asText());
-                    authors.add(author);
-                }
+            if (authors != null) {
                 paper.setAuthors(authors);
             }
 
             // 解析分类
-            if (item.has("categories") && item.get("categories").isArray()) {
-                for (JsonNode categoryNode : item.get("categories")) {
-                    paper.getCategories().add(categoryNode.asText());
-                }
-            }
+            paper.getCategories().addAll(categories);
 
             // 解析日期
-            String publishedDateStr = item.path("publishedDate").asText();
             if (!publishedDateStr.isEmpty()) {
-                paper.setPublishedDate(LocalDateTime.parse(publishedDateStr, DATE_FORMATTER));
+                paper.setPublishedDate(ParserUtils.CHEMRXIV_DATE.decode(publishedDateStr));
             }
 
-            String updatedDateStr = item.path("updatedDate").asText();
             if (!updatedDateStr.isEmpty()) {
-                paper.setUpdatedDate(LocalDateTime.parse(updatedDateStr, DATE_FORMATTER));
+                paper.setUpdatedDate(ParserUtils.CHEMRXIV_DATE.decode(updatedDateStr));
             }
 
             // 解析PDF URL
-            if (item.has("pdfUrl") && item.get("pdfUrl").isTextual()) {
-                paper.setPdfUrl(item.get("pdfUrl").asText());
+            if (pdfUrl != null) {
+                paper.setPdfUrl(pdfUrl);
             }
 
             // 解析版本
-            paper.setVersion(item.path("version").asInt(1));
+            paper.setVersion(version);
 
             return paper;
 
@@ -107,6 +201,50 @@ public class ChemRxivParser implements PaperParser {
         }
     }
 
+    /**
+     * 读取作者数组，解析器位于START_ARRAY上，返回时位于对应的END_ARRAY
+     */
+    private List<Author> parseAuthors(JsonParser parser) throws IOException {
+        List<Author> authors = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            String firstName = "";
+            String lastName = "";
+            String affiliation = "";
+            String orcid = "";
+            if (parser.currentToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.getCurrentName();
+                    parser.nextToken();
+                    switch (field) {
+                        case "firstName":
+                            firstName = JsonValues.asText(parser);
+                            break;
+                        case "lastName":
+                            lastName = JsonValues.asText(parser);
+                            break;
+                        case "affiliation":
+                            affiliation = JsonValues.asText(parser);
+                            break;
+                        case "orcid":
+                            orcid = JsonValues.asText(parser);
+                            break;
+                        default:
+                            parser.skipChildren();
+                            break;
+                    }
+                }
+            } else {
+                parser.skipChildren();
+            }
+            Author author = new Author();
+            author.setName((firstName + " " + lastName).trim());
+            author.setAffiliation(affiliation);
+            author.setOrcid(orcid);
+            authors.add(author);
+        }
+        return authors;
+    }
+
     @Override
     public String buildQueryUrl(int start, int maxResults) {
         String baseUrl = CrawlerConfig.getChemRxivBaseUrl();
@@ -123,10 +261,11 @@ public class ChemRxivParser implements PaperParser {
 
     @Override
     public Optional<Paper> parsePaper(String content) {
-        try {
-            JsonNode item = objectMapper.readTree(content);
-            Paper paper = parsePaperItem(item);
-            return Optional.ofNullable(paper);
+        try (JsonParser parser = JSON_FACTORY.createParser(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(parsePaperItem(parser));
         } catch (Exception e) {
             return Optional.empty();
         }
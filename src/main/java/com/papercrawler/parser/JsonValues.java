@@ -0,0 +1,93 @@
+package com.papercrawler.parser;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.NumberInput;
+
+import java.io.IOException;
+
+/**
+ * 在Jackson token流上读取字段值，转换规则与JsonNode的asText()/asInt()一致，
+ * 使流式解析与原先基于树的解析结果相同
+ * 调用时解析器应位于值的第一个token上，对象和数组会被整体跳过
+ */
+final class JsonValues {
+
+    private JsonValues() {
+    }
+
+    /**
+     * 等价于JsonNode.asText()：null为"null"，对象和数组为空串
+     */
+    static String asText(JsonParser parser) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            return "";
+        }
+        switch (token) {
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue().toString();
+            case VALUE_NUMBER_FLOAT:
+                return Double.toString(parser.getDoubleValue());
+            case VALUE_TRUE:
+                return "true";
+            case VALUE_FALSE:
+                return "false";
+            case VALUE_NULL:
+                return "null";
+            default:
+                parser.skipChildren();
+                return "";
+        }
+    }
+
+    /**
+     * 等价于asText(parser).replaceAll("\\s+", " ").trim()
+     * 字符串值直接在解析器的字符缓冲区上折叠空白，不生成中间字符串
+     */
+    static String collapsedText(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return ParserUtils.collapseWhitespace(parser.getTextCharacters(), parser.getTextOffset(),
+                    parser.getTextLength());
+        }
+        return ParserUtils.collapseWhitespace(asText(parser));
+    }
+
+    /**
+     * 等价于JsonNode.asInt(defaultValue)
+     */
+    static int asInt(JsonParser parser, int defaultValue) throws IOException {
+        JsonToken token = parser.currentToken();
+        if (token == null) {
+            return defaultValue;
+        }
+        switch (token) {
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue().intValue();
+            case VALUE_NUMBER_FLOAT:
+                return (int) parser.getDoubleValue();
+            case VALUE_STRING:
+                return NumberInput.parseAsInt(parser.getText(), defaultValue);
+            case VALUE_TRUE:
+                return 1;
+            case VALUE_FALSE:
+                return 0;
+            default:
+                parser.skipChildren();
+                return defaultValue;
+        }
+    }
+
+    /**
+     * 字符串值返回文本，其他类型跳过后返回null
+     */
+    static String textOrNull(JsonParser parser) throws IOException {
+        if (parser.currentToken() == JsonToken.VALUE_STRING) {
+            return parser.getText();
+        }
+        parser.skipChildren();
+        return null;
+    }
+}
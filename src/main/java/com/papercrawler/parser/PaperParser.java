@@ -2,14 +2,41 @@ package com.papercrawler.parser;
 
 import com.papercrawler.model.Paper;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface PaperParser {
     /**
      * 解析API响应内容为论文列表
      */
-    List<Paper> parsePapers(String content);
+    default List<Paper> parsePapers(String content) {
+        List<Paper> papers = new ArrayList<>();
+        parsePapers(content, papers::add);
+        return papers;
+    }
+
+    /**
+     * 以流的方式解析API响应，避免将整个响应体物化为字符串
+     */
+    default List<Paper> parsePapers(InputStream content) {
+        List<Paper> papers = new ArrayList<>();
+        parsePapers(content, papers::add);
+        return papers;
+    }
+
+    /**
+     * 增量解析API响应内容，每解析出一篇论文立即交给consumer，返回论文数量
+     * consumer抛出的异常原样传给调用方，此时响应的剩余部分不再解析
+     */
+    int parsePapers(String content, Consumer<Paper> consumer);
+
+    /**
+     * 以流的方式增量解析API响应，论文在响应体其余部分仍在读取时就交给consumer
+     */
+    int parsePapers(InputStream content, Consumer<Paper> consumer);
 
     /**
      * 构建API查询URL
@@ -25,4 +52,4 @@ public interface PaperParser {
      * 解析单篇论文
      */
     Optional<Paper> parsePaper(String content);
-}
\ No newline at end of file
+}
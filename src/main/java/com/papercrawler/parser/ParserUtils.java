@@ -0,0 +1,237 @@
+package com.papercrawler.parser;
+
+import java.nio.CharBuffer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.function.Function;
+
+/**
+ * 解析器共用的文本规范化和日期解码
+ * 空白折叠单遍完成，不编译正则；日期按固定格式逐位解码，并缓存最近出现的日期字符串
+ */
+final class ParserUtils {
+
+    private static final DateTimeFormatter ARXIV_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final DateTimeFormatter CHEMRXIV_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+
+    /**
+     * arXiv：2023-01-01T12:34:56Z
+     */
+    static final DateDecoder ARXIV_DATE = new DateDecoder(Layout.SECONDS,
+            text -> LocalDateTime.parse(text, ARXIV_FORMATTER));
+
+    /**
+     * bioRxiv：2023-01-01，时间取当天零点
+     */
+    static final DateDecoder BIORXIV_DATE = new DateDecoder(Layout.DATE,
+            text -> LocalDateTime.parse(text + "T00:00:00Z", DateTimeFormatter.ISO_DATE_TIME));
+
+    /**
+     * ChemRxiv：2023-01-01T12:34:56.789Z
+     */
+    static final DateDecoder CHEMRXIV_DATE = new DateDecoder(Layout.MILLIS,
+            text -> LocalDateTime.parse(text, CHEMRXIV_FORMATTER));
+
+    private ParserUtils() {
+    }
+
+    /**
+     * 等价于text.toString().replaceAll("\\s+", " ").trim()
+     * 已经规范的String原样返回，不产生新对象
+     */
+    static String collapseWhitespace(CharSequence text) {
+        int start = 0;
+        int end = text.length();
+        // 与String.trim()一致，去掉首尾所有不大于空格的字符
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        int firstChange = firstChange(text, start, end);
+        if (firstChange == end) {
+            return start == 0 && end == text.length() ? text.toString() : text.subSequence(start, end).toString();
+        }
+        StringBuilder sb = new StringBuilder(end - start);
+        sb.append(text, start, firstChange);
+        appendCollapsed(sb, text, firstChange, end);
+        return sb.toString();
+    }
+
+    /**
+     * 字符数组版本，用于直接读取解析器内部缓冲区，避免先生成中间字符串
+     */
+    static String collapseWhitespace(char[] chars, int offset, int length) {
+        return collapseWhitespace(CharBuffer.wrap(chars, offset, length));
+    }
+
+    /**
+     * 第一个需要改写的位置：非空格的空白字符，或连续空白中的第二个字符
+     */
+    private static int firstChange(CharSequence text, int start, int end) {
+        boolean previousSpace = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                if (c != ' ' || previousSpace) {
+                    return previousSpace ? i - 1 : i;
+                }
+                previousSpace = true;
+            } else {
+                previousSpace = false;
+            }
+        }
+        return end;
+    }
+
+    private static void appendCollapsed(StringBuilder sb, CharSequence text, int start, int end) {
+        boolean inWhitespace = false;
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (isWhitespace(c)) {
+                if (!inWhitespace) {
+                    sb.append(' ');
+                    inWhitespace = true;
+                }
+            } else {
+                sb.append(c);
+                inWhitespace = false;
+            }
+        }
+    }
+
+    /**
+     * 正则\s对应的字符：空格、\t、\n、\u000B、\f、\r
+     */
+    private static boolean isWhitespace(char c) {
+        return c == ' ' || (c >= '\t' && c <= '\r');
+    }
+
+    /**
+     * 日期字符串的固定格式
+     */
+    private enum Layout {
+        DATE(10),       // yyyy-MM-dd
+        SECONDS(20),    // yyyy-MM-ddTHH:mm:ssZ
+        MILLIS(24);     // yyyy-MM-ddTHH:mm:ss.SSSZ
+
+        private final int length;
+
+        Layout(int length) {
+            this.length = length;
+        }
+    }
+
+    /**
+     * 固定格式的日期解码器
+     * 格式完全符合且取值合法时直接按位解码，其余情况交给原来的DateTimeFormatter，结果和异常与其一致；
+     * 最近解码的字符串保存在直接映射的小缓存中，同一页中重复的日期不再解码
+     */
+    static final class DateDecoder {
+        private static final int CACHE_SIZE = 64; // 2的幂
+
+        private final Layout layout;
+        private final Function<String, LocalDateTime> fallback;
+        // 条目不可变，多线程下的竞争只会造成未命中，不会读到不一致的条目
+        private final CacheEntry[] cache = new CacheEntry[CACHE_SIZE];
+
+        private DateDecoder(Layout layout, Function<String, LocalDateTime> fallback) {
+            this.layout = layout;
+            this.fallback = fallback;
+        }
+
+        /**
+         * 解码日期，格式不合法时抛出DateTimeParseException
+         */
+        LocalDateTime decode(String text) {
+            int slot = text.hashCode() & (CACHE_SIZE - 1);
+            CacheEntry entry = cache[slot];
+            if (entry != null && entry.text.equals(text)) {
+                return entry.value;
+            }
+            LocalDateTime value = decodeFixed(text);
+            if (value == null) {
+                value = fallback.apply(text);
+            }
+            cache[slot] = new CacheEntry(text, value);
+            return value;
+        }
+
+        /**
+         * 按位解码，不符合固定格式或取值越界时返回null
+         */
+        private LocalDateTime decodeFixed(String text) {
+            if (text.length() != layout.length || text.charAt(4) != '-' || text.charAt(7) != '-') {
+                return null;
+            }
+            int year = digits(text, 0, 4);
+            int month = digits(text, 5, 2);
+            int day = digits(text, 8, 2);
+            if (year < 1 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)) {
+                return null;
+            }
+            if (layout == Layout.DATE) {
+                return LocalDateTime.of(year, month, day, 0, 0);
+            }
+
+            if (text.charAt(10) != 'T' || text.charAt(13) != ':' || text.charAt(16) != ':'
+                    || text.charAt(layout.length - 1) != 'Z') {
+                return null;
+            }
+            int hour = digits(text, 11, 2);
+            int minute = digits(text, 14, 2);
+            int second = digits(text, 17, 2);
+            if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+                return null;
+            }
+            int nanos = 0;
+            if (layout == Layout.MILLIS) {
+                int millis = digits(text, 20, 3);
+                if (text.charAt(19) != '.' || millis < 0) {
+                    return null;
+                }
+                nanos = millis * 1_000_000;
+            }
+            return LocalDateTime.of(year, month, day, hour, minute, second, nanos);
+        }
+
+        private static int digits(String text, int start, int count) {
+            int value = 0;
+            for (int i = start; i < start + count; i++) {
+                char c = text.charAt(i);
+                if (c < '0' || c > '9') {
+                    return -1;
+                }
+                value = value * 10 + (c - '0');
+            }
+            return value;
+        }
+
+        private static int daysInMonth(int year, int month) {
+            switch (month) {
+                case 2:
+                    boolean leap = (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+                    return leap ? 29 : 28;
+                case 4:
+                case 6:
+                case 9:
+                case 11:
+                    return 30;
+                default:
+                    return 31;
+            }
+        }
+    }
+
+    private static final class CacheEntry {
+        final String text;
+        final LocalDateTime value;
+
+        CacheEntry(String text, LocalDateTime value) {
+            this.text = text;
+            this.value = value;
+        }
+    }
+}
@@ -3,7 +3,7 @@ package com.papercrawler.scheduler;
 import com.papercrawler.config.CrawlerConfig;
 import com.papercrawler.model.Paper;
 import com.papercrawler.parser.PaperParser;
-import com.papercrawler.network.HttpClient;
+import com.papercrawler.network.AsyncHttpClient;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -12,7 +12,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 public class AsyncScheduler implements Scheduler {
     private final PaperParser parser;
-    private final HttpClient httpClient;
+    private final ParseStage parseStage = ParseStage.getInstance();
+    private final AsyncHttpClient httpClient;
     private final List<PaperProcessor> processors = new ArrayList<>();
     private final AtomicInteger completedCount = new AtomicInteger(0);
     private final AtomicInteger failedCount = new AtomicInteger(0);
@@ -20,7 +21,7 @@ public class AsyncScheduler implements Scheduler {
 
     public AsyncScheduler(PaperParser parser) {
         this.parser = parser;
-        this.httpClient = new HttpClient();
+        this.httpClient = new AsyncHttpClient();
     }
 
     @Override
@@ -34,16 +35,14 @@ public class AsyncScheduler implements Scheduler {
 
             CompletableFuture<Void> future = CompletableFuture
                     .supplyAsync(() -> parser.buildQueryUrl(currentStart, currentSize))
-                    .thenApplyAsync(url -> httpClient.get(url).orElse(null))
-                    .thenApplyAsync(content -> content != null ? parser.parsePapers(content) : new ArrayList<Paper>())
-                    .thenAcceptAsync(papers -> {
-                        for (Paper paper : papers) {
-                            for (PaperProcessor processor : processors) {
-                                processor.process(paper);
-                            }
-                            completedCount.incrementAndGet();
-                        }
-                    })
+                    // 按数据源当前的自适应并发上限分发批次
+                    .thenCompose(httpClient::getAsyncLimited)
+                    // 解析交给独立的解析阶段，每解析出一篇论文立即通知处理器；
+                    // 等待解析的任务已满时排队，不占用回调线程
+                    .thenCompose(content -> content.isPresent()
+                            ? parseStage.submitAsync(() -> parser.parsePapers(content.get(), this::dispatch))
+                                    .thenApply(paperCount -> (Void) null)
+                            : CompletableFuture.<Void>completedFuture(null))
                     .exceptionally(throwable -> {
                         failedCount.incrementAndGet();
                         System.err.println("Async task failed: " + throwable.getMessage());
@@ -56,14 +55,20 @@ public class AsyncScheduler implements Scheduler {
         return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]));
     }
 
+    /**
+     * 通知所有处理器
+     */
+    private void dispatch(Paper paper) {
+        for (PaperProcessor processor : processors) {
+            processor.process(paper);
+        }
+        completedCount.incrementAndGet();
+    }
+
     @Override
     public void stop() {
         futures.forEach(future -> future.cancel(true));
-        try {
-            httpClient.close();
-        } catch (Exception e) {
-            System.err.println("Error closing HTTP client: " + e.getMessage());
-        }
+        httpClient.close();
     }
 
     @Override
@@ -0,0 +1,63 @@
+package com.papercrawler.scheduler;
+
+import com.papercrawler.model.Paper;
+import com.papercrawler.network.BufferPool;
+import com.papercrawler.network.ConcurrencyLimiter;
+import com.papercrawler.network.HttpClient;
+import com.papercrawler.parser.PaperParser;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * 同步调度器共用的下载与解析衔接
+ * 调用线程在数据源的自适应并发上限内取回池化响应体，随即交给共享的解析阶段并返回，不等待解析结束
+ */
+final class BatchFetcher {
+    private final HttpClient httpClient;
+    private final PaperParser parser;
+    private final ConcurrencyLimiter concurrencyLimiter = ConcurrencyLimiter.getInstance();
+    private final ParseStage parseStage = ParseStage.getInstance();
+
+    BatchFetcher(HttpClient httpClient, PaperParser parser) {
+        this.httpClient = httpClient;
+        this.parser = parser;
+    }
+
+    /**
+     * 下载url并提交解析，每解析出一篇论文立即交给consumer
+     * 返回的Future在解析线程上以论文数完成；下载或解析失败时以对应的异常完成，缓冲区在任何情况下都会归还
+     */
+    CompletableFuture<Integer> fetchAndParse(String url, Consumer<Paper> consumer) {
+        // 按数据源当前的自适应并发上限分发请求
+        ConcurrencyLimiter.Permit permit = concurrencyLimiter.acquire(url);
+        if (permit == null) {
+            return CompletableFuture.failedFuture(
+                    new RuntimeException("Interrupted while waiting for concurrency permit"));
+        }
+        Optional<BufferPool.PooledBody> fetched;
+        try {
+            // 下载线程只取回响应体，解析交给独立的解析阶段
+            fetched = httpClient.fetchBody(url);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            permit.release();
+        }
+        if (fetched.isEmpty()) {
+            return CompletableFuture.failedFuture(new RuntimeException("Failed to fetch content from " + url));
+        }
+
+        BufferPool.PooledBody body = fetched.get();
+        CompletableFuture<Integer> parsed = parseStage.submit(() -> {
+            // 解析线程直接读取池化缓冲区，解析结束后归还
+            try (BufferPool.PooledBody pooled = body) {
+                return parser.parsePapers(pooled.openStream(), consumer);
+            }
+        });
+        // 提交失败时任务未执行，在此归还缓冲区；重复关闭无副作用
+        parsed.whenComplete((count, error) -> body.close());
+        return parsed;
+    }
+}
@@ -18,9 +18,14 @@ public class DistributedScheduler implements Scheduler {
     private final AtomicInteger completedCount = new AtomicInteger(0);
     private final AtomicInteger failedCount = new AtomicInteger(0);
     private final ExecutorService executorService;
+    // 所有节点共用一个客户端，连接来自进程内共享的连接池
+    private final HttpClient httpClient;
+    private final BatchFetcher batchFetcher;
 
     public DistributedScheduler(PaperParser parser) {
         this.parser = parser;
+        this.httpClient = new HttpClient();
+        this.batchFetcher = new BatchFetcher(httpClient, parser);
         this.executorService = Executors.newFixedThreadPool(
                 CrawlerConfig.getMaxConnections()
         );
@@ -41,9 +46,9 @@ public class DistributedScheduler implements Scheduler {
                     final int currentNode = node;
                     final int startIndex = currentNode * papersPerNode;
 
-                    CompletableFuture<Void> nodeFuture = CompletableFuture.runAsync(() -> {
-                        processNode(startIndex, papersPerNode, "Node-" + currentNode);
-                    }, executorService);
+                    CompletableFuture<Void> nodeFuture = CompletableFuture.supplyAsync(() ->
+                            processNode(startIndex, papersPerNode, "Node-" + currentNode), executorService)
+                            .thenCompose(parsed -> parsed);
 
                     nodeFutures.add(nodeFuture);
                 }
@@ -58,44 +63,61 @@ public class DistributedScheduler implements Scheduler {
         });
     }
 
-    private void processNode(int start, int count, String nodeId) {
-        try (HttpClient httpClient = new HttpClient()) {
+    /**
+     * 下载一个节点负责的论文并提交解析，返回的Future在解析和处理结束后完成
+     */
+    private CompletableFuture<Void> processNode(int start, int count, String nodeId) {
+        try {
             System.out.printf("Node %s processing papers from %d to %d%n",
                     nodeId, start, start + count);
 
             String url = parser.buildQueryUrl(start, count);
-            String content = httpClient.get(url).orElseThrow(() ->
-                    new RuntimeException("Failed to fetch content for node " + nodeId));
-
-            List<Paper> papers = parser.parsePapers(content);
 
             // 模拟分布式处理延迟
             try {
                 Thread.sleep(1000);
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
-                return;
+                return CompletableFuture.completedFuture(null);
             }
 
-            // 处理论文
-            for (Paper paper : papers) {
-                for (PaperProcessor processor : processors) {
-                    processor.process(paper);
-                }
-                completedCount.incrementAndGet();
-            }
-
-            System.out.printf("Node %s completed: %d papers%n", nodeId, papers.size());
+            // 节点线程只取回响应体，边解析边处理论文
+            return batchFetcher.fetchAndParse(url, this::dispatch)
+                    .handle((paperCount, error) -> {
+                        if (error != null) {
+                            failedCount.incrementAndGet();
+                            System.err.printf("Node %s failed: %s%n", nodeId, error.getMessage());
+                        } else {
+                            System.out.printf("Node %s completed: %d papers%n", nodeId, paperCount);
+                        }
+                        return null;
+                    });
 
         } catch (Exception e) {
             failedCount.incrementAndGet();
             System.err.printf("Node %s failed: %s%n", nodeId, e.getMessage());
+            return CompletableFuture.completedFuture(null);
         }
     }
 
+    /**
+     * 通知所有处理器
+     */
+    private void dispatch(Paper paper) {
+        for (PaperProcessor processor : processors) {
+            processor.process(paper);
+        }
+        completedCount.incrementAndGet();
+    }
+
     @Override
     public void stop() {
         executorService.shutdown();
+        try {
+            httpClient.close();
+        } catch (Exception e) {
+            System.err.println("Error closing HTTP client: " + e.getMessage());
+        }
     }
 
     @Override
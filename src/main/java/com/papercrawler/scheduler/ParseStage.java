@@ -0,0 +1,134 @@
+package com.papercrawler.scheduler;
+
+import com.papercrawler.config.CrawlerConfig;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 独立的解析阶段，进程内所有调度器共享
+ * 下载线程取回响应体后交给按CPU核数配置的解析线程池，自身立即返回继续下载，解析与网络I/O不再争用同一批线程；
+ * 排队和正在解析的任务总数有上限，超出时同步提交方阻塞、异步提交方排队等待，下载速度随之与解析速度匹配
+ * 名额用ReentrantLock而不是synchronized保护：提交方可能是虚拟线程，在synchronized中等待会占住载体线程
+ */
+final class ParseStage {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(0);
+    private static volatile ParseStage instance;
+
+    private final ExecutorService executor;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition slotFreed = lock.newCondition();
+    // 每个任务从提交到解析结束占用一个名额，总数为线程数加队列长度；以下字段由lock保护
+    private int freeSlots;
+    // 非阻塞提交在名额用尽时排队，名额释放时直接转交给队首任务
+    private final Queue<Runnable> waiting = new ArrayDeque<>();
+
+    private ParseStage(int threads, int queueSize) {
+        this.freeSlots = threads + Math.max(0, queueSize);
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "parse-" + THREAD_COUNTER.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 获取进程内共享的解析阶段
+     */
+    static ParseStage getInstance() {
+        if (instance == null) {
+            synchronized (ParseStage.class) {
+                if (instance == null) {
+                    instance = new ParseStage(CrawlerConfig.getParseThreads(), CrawlerConfig.getParseQueueSize());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * 提交解析任务，等待解析的任务已满时阻塞直到有空位，供下载线程使用
+     * 返回的Future在解析线程上完成；等待时被中断则返回失败的Future并保留中断标志
+     */
+    <T> CompletableFuture<T> submit(Supplier<T> task) {
+        lock.lock();
+        try {
+            while (freeSlots == 0) {
+                slotFreed.await();
+            }
+            freeSlots--;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            lock.unlock();
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        start(task, result);
+        return result;
+    }
+
+    /**
+     * 非阻塞地提交解析任务，供异步回调使用
+     * 名额已满时任务排队，在其他任务解析结束释放名额时启动，调用线程不会等待
+     */
+    <T> CompletableFuture<T> submitAsync(Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        lock.lock();
+        try {
+            if (freeSlots == 0) {
+                waiting.add(() -> start(task, result));
+                return result;
+            }
+            freeSlots--;
+        } finally {
+            lock.unlock();
+        }
+        start(task, result);
+        return result;
+    }
+
+    /**
+     * 在已占用的名额上运行任务，结束后释放名额
+     */
+    private <T> void start(Supplier<T> task, CompletableFuture<T> result) {
+        try {
+            executor.execute(() -> {
+                try {
+                    result.complete(task.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                } finally {
+                    release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            result.completeExceptionally(e);
+            release();
+        }
+    }
+
+    private void release() {
+        Runnable next;
+        lock.lock();
+        try {
+            next = waiting.poll();
+            if (next == null) {
+                freeSlots++;
+                slotFreed.signal();
+                return;
+            }
+        } finally {
+            lock.unlock();
+        }
+        next.run();
+    }
+}
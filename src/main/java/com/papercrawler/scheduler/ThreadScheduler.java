@@ -14,6 +14,7 @@ public class ThreadScheduler implements Scheduler {
     private final ExecutorService executor;
     private final HttpClient httpClient;
     private final PaperParser parser;
+    private final BatchFetcher batchFetcher;
     private final List<PaperProcessor> processors = new ArrayList<>();
     private final AtomicInteger completedCount = new AtomicInteger(0);
     private final AtomicInteger failedCount = new AtomicInteger(0);
@@ -21,6 +22,7 @@ public class ThreadScheduler implements Scheduler {
     public ThreadScheduler(PaperParser parser) {
         this.parser = parser;
         this.httpClient = new HttpClient();
+        this.batchFetcher = new BatchFetcher(httpClient, parser);
         this.executor = Executors.newFixedThreadPool(CrawlerConfig.getMaxConnections());
     }
 
@@ -35,19 +37,13 @@ public class ThreadScheduler implements Scheduler {
 
                 for (int start = 0; start < maxResults; start += batchSize) {
                     final int currentStart = start;
-                    CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
-                        processBatch(currentStart, Math.min(batchSize, maxResults - currentStart));
-                    }, executor);
+                    // 下载完成后线程即可处理下一个批次，批次的Future在解析结束后完成
+                    CompletableFuture<Void> future = CompletableFuture.supplyAsync(() ->
+                            processBatch(currentStart, Math.min(batchSize, maxResults - currentStart)), executor)
+                            .thenCompose(parsed -> parsed);
 
+                    // 请求频率由HttpClient按主机限流控制，提交时无需等待
                     futures.add(future);
-
-                    // 控制请求频率
-                    try {
-                        Thread.sleep((long) (CrawlerConfig.getDelayBetweenRequests() * 1000));
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
                 }
 
                 // 等待所有任务完成
@@ -60,26 +56,38 @@ public class ThreadScheduler implements Scheduler {
         });
     }
 
-    private void processBatch(int start, int maxResults) {
+    /**
+     * 下载一个批次并提交解析，返回的Future在该批次解析和处理结束后完成
+     */
+    private CompletableFuture<Void> processBatch(int start, int maxResults) {
         try {
             String url = parser.buildQueryUrl(start, maxResults);
-            String content = httpClient.get(url).orElseThrow(() ->
-                    new RuntimeException("Failed to fetch content from " + url));
-
-            List<Paper> papers = parser.parsePapers(content);
 
-            for (Paper paper : papers) {
-                // 通知所有处理器
-                for (PaperProcessor processor : processors) {
-                    processor.process(paper);
-                }
-                completedCount.incrementAndGet();
-            }
+            // 每解析出一篇论文立即通知处理器，下载线程不等待解析结束
+            return batchFetcher.fetchAndParse(url, this::dispatch)
+                    .handle((count, error) -> {
+                        if (error != null) {
+                            failedCount.incrementAndGet();
+                            System.err.println("Batch processing failed: " + error.getMessage());
+                        }
+                        return null;
+                    });
 
         } catch (Exception e) {
             failedCount.incrementAndGet();
             System.err.println("Batch processing failed: " + e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 通知所有处理器
+     */
+    private void dispatch(Paper paper) {
+        for (PaperProcessor processor : processors) {
+            processor.process(paper);
         }
+        completedCount.incrementAndGet();
     }
 
     @Override
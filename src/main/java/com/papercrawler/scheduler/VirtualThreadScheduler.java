@@ -0,0 +1,126 @@
+package com.papercrawler.scheduler;
+
+import com.papercrawler.config.CrawlerConfig;
+import com.papercrawler.model.Paper;
+import com.papercrawler.parser.PaperParser;
+import com.papercrawler.network.HttpClient;
+import com.papercrawler.util.VirtualThreads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 虚拟线程调度器
+ * 每个批次的下载运行在独立的虚拟线程上，阻塞等待不占用平台线程，解析交给按CPU核数配置的解析阶段；
+ * 下载并发度只受按主机限流和自适应并发上限约束，需要Java 21及以上
+ */
+public class VirtualThreadScheduler implements Scheduler {
+    private final ExecutorService executor;
+    private final HttpClient httpClient;
+    private final PaperParser parser;
+    private final BatchFetcher batchFetcher;
+    private final List<PaperProcessor> processors = new ArrayList<>();
+    private final AtomicInteger completedCount = new AtomicInteger(0);
+    private final AtomicInteger failedCount = new AtomicInteger(0);
+
+    public VirtualThreadScheduler(PaperParser parser) {
+        this.parser = parser;
+        this.httpClient = new HttpClient();
+        this.batchFetcher = new BatchFetcher(httpClient, parser);
+        this.executor = VirtualThreads.newPerTaskExecutor();
+    }
+
+    @Override
+    public CompletableFuture<Void> start() {
+        return CompletableFuture.runAsync(() -> {
+            try {
+                int maxResults = CrawlerConfig.getArxivMaxResults();
+                int batchSize = 100;
+
+                List<CompletableFuture<Void>> futures = new ArrayList<>();
+
+                // 一次性提交全部批次，每个批次一个虚拟线程
+                for (int start = 0; start < maxResults; start += batchSize) {
+                    final int currentStart = start;
+                    futures.add(CompletableFuture.supplyAsync(() ->
+                            processBatch(currentStart, Math.min(batchSize, maxResults - currentStart)), executor)
+                            .thenCompose(parsed -> parsed));
+                }
+
+                // 等待所有任务完成
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+            } catch (Exception e) {
+                failedCount.incrementAndGet();
+                throw new RuntimeException("Scheduler execution failed", e);
+            }
+        }, executor);
+    }
+
+    /**
+     * 下载一个批次并提交解析，返回的Future在该批次解析和处理结束后完成
+     */
+    private CompletableFuture<Void> processBatch(int start, int maxResults) {
+        try {
+            String url = parser.buildQueryUrl(start, maxResults);
+
+            // 每解析出一篇论文立即通知处理器，下载线程不等待解析结束
+            return batchFetcher.fetchAndParse(url, this::dispatch)
+                    .handle((count, error) -> {
+                        if (error != null) {
+                            failedCount.incrementAndGet();
+                            System.err.println("Batch processing failed: " + error.getMessage());
+                        }
+                        return null;
+                    });
+
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            System.err.println("Batch processing failed: " + e.getMessage());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    /**
+     * 通知所有处理器
+     */
+    private void dispatch(Paper paper) {
+        for (PaperProcessor processor : processors) {
+            processor.process(paper);
+        }
+        completedCount.incrementAndGet();
+    }
+
+    @Override
+    public void stop() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                executor.shutdownNow();
+            }
+            httpClient.close();
+        } catch (Exception e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public int getCompletedCount() {
+        return completedCount.get();
+    }
+
+    @Override
+    public int getFailedCount() {
+        return failedCount.get();
+    }
+
+    @Override
+    public void onPaperProcessed(PaperProcessor processor) {
+        processors.add(processor);
+    }
+}
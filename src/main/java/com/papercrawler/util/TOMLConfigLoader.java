@@ -74,7 +74,7 @@ public class TOMLConfigLoader {
 
         if (!isValidMode(mode)) {
             throw new RuntimeException("Invalid crawler mode: " + mode +
-                    ". Valid modes are: thread, async, distributed");
+                    ". Valid modes are: thread, async, distributed, virtual");
         }
 
         // 验证API配置
@@ -108,7 +108,8 @@ public class TOMLConfigLoader {
         String lowerMode = mode.toLowerCase();
         return lowerMode.equals("thread") ||
                 lowerMode.equals("async") ||
-                lowerMode.equals("distributed");
+                lowerMode.equals("distributed") ||
+                lowerMode.equals("virtual");
     }
 
     /**
@@ -0,0 +1,137 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 熔断参数见crawler-test.toml；每个测试使用独立的主机名，互不影响
+ */
+class CircuitBreakerTest {
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.SECONDS.toNanos(2);
+
+    private final CircuitBreaker breaker = CircuitBreaker.getInstance();
+
+    @BeforeAll
+    static void loadConfig() {
+        CrawlerConfig.loadConfig("crawler-test.toml");
+    }
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        String url = "http://minimum.circuit.test/api";
+
+        record(url, true, true, true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("minimum.circuit.test"));
+        assertTrue(breaker.tryAcquire(url));
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        String url = "http://failures.circuit.test/api";
+
+        record(url, false, false, true, true);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState("failures.circuit.test"));
+        assertTrue(breaker.isOpen(url));
+        assertFalse(breaker.tryAcquire(url));
+        assertFalse(breaker.isOpen("http://other.circuit.test/api"));
+    }
+
+    @Test
+    void opensWhenSlowCallRateReachesThreshold() {
+        String url = "http://slow.circuit.test/api";
+
+        breaker.onSuccess(url, SLOW);
+        breaker.onSuccess(url, SLOW);
+        breaker.onSuccess(url, FAST);
+        breaker.onSuccess(url, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState("slow.circuit.test"));
+    }
+
+    @Test
+    void oldOutcomesLeaveTheWindow() {
+        String url = "http://window.circuit.test/api";
+
+        record(url, true, false, false, false);
+        // 新的失败挤出最早的失败，窗口内仍只有1次失败
+        record(url, true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("window.circuit.test"));
+
+        record(url, true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState("window.circuit.test"));
+    }
+
+    @Test
+    void halfOpenProbesCloseCircuitAfterSuccess() throws InterruptedException {
+        String url = "http://recover.circuit.test/api";
+        record(url, true, true, true, true);
+
+        awaitHalfOpen();
+        assertFalse(breaker.isOpen(url));
+        assertTrue(breaker.tryAcquire(url));
+        assertTrue(breaker.tryAcquire(url));
+        assertFalse(breaker.tryAcquire(url));
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState("recover.circuit.test"));
+
+        breaker.onSuccess(url, FAST);
+        breaker.onSuccess(url, FAST);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState("recover.circuit.test"));
+        assertTrue(breaker.tryAcquire(url));
+    }
+
+    @Test
+    void failedProbeReopensCircuit() throws InterruptedException {
+        String url = "http://reopen.circuit.test/api";
+        record(url, true, true, true, true);
+
+        awaitHalfOpen();
+        assertTrue(breaker.tryAcquire(url));
+        breaker.onFailure(url, FAST);
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState("reopen.circuit.test"));
+        assertTrue(breaker.isOpen(url));
+    }
+
+    @Test
+    void releasedProbeCanBeTakenAgain() throws InterruptedException {
+        String url = "http://release.circuit.test/api";
+        record(url, true, true, true, true);
+
+        awaitHalfOpen();
+        assertTrue(breaker.tryAcquire(url));
+        assertTrue(breaker.tryAcquire(url));
+        assertFalse(breaker.tryAcquire(url));
+
+        // 请求未发出时归还名额
+        breaker.release(url);
+        assertTrue(breaker.tryAcquire(url));
+    }
+
+    private void record(String url, boolean... failures) {
+        for (boolean failure : failures) {
+            assertTrue(breaker.tryAcquire(url));
+            if (failure) {
+                breaker.onFailure(url, FAST);
+            } else {
+                breaker.onSuccess(url, FAST);
+            }
+        }
+    }
+
+    /**
+     * 等待超过open_duration_ms，下一次tryAcquire进入半开状态
+     */
+    private static void awaitHalfOpen() throws InterruptedException {
+        Thread.sleep(CrawlerConfig.getCircuitBreakerOpenMillis() + 100);
+    }
+}
@@ -0,0 +1,106 @@
+package com.papercrawler.network;
+
+import com.papercrawler.config.CrawlerConfig;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 测试主机按crawler-test.toml限流：每秒1个请求，突发3个；每个测试使用独立的主机名，互不影响
+ */
+class HostRateLimiterTest {
+    private final HostRateLimiter limiter = HostRateLimiter.getInstance();
+
+    @BeforeAll
+    static void loadConfig() {
+        CrawlerConfig.loadConfig("crawler-test.toml");
+    }
+
+    @Test
+    void burstIsAvailableImmediatelyThenLimited() {
+        String url = "http://burst.ratelimit.test/api";
+
+        assertTrue(limiter.tryAcquire(url, null));
+        assertTrue(limiter.tryAcquire(url, null));
+        assertTrue(limiter.tryAcquire(url, null));
+        assertFalse(limiter.tryAcquire(url, null));
+    }
+
+    @Test
+    void egressesAreLimitedSeparately() {
+        String url = "http://egress.ratelimit.test/api";
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.tryAcquire(url, null));
+        }
+
+        assertFalse(limiter.tryAcquire(url, null));
+        assertTrue(limiter.tryAcquire(url, "proxy-a:8080"));
+    }
+
+    @Test
+    void asyncAcquireWaitsOnceBurstIsUsed() {
+        String url = "http://async.ratelimit.test/api";
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limiter.acquire(url).isDone());
+        }
+
+        CompletableFuture<Void> delayed = limiter.acquire(url);
+        assertFalse(delayed.isDone());
+    }
+
+    @Test
+    void retryAfterPausesOnlyThatHost() {
+        String url = "http://paused.ratelimit.test/api";
+        Map<String, String> headers = Map.of("Retry-After", "5");
+
+        assertEquals(5000, limiter.onResponse(url, 429, headers::get));
+        assertFalse(limiter.tryAcquire(url, null));
+        assertTrue(limiter.tryAcquire("http://other.ratelimit.test/api", null));
+    }
+
+    @Test
+    void exhaustedQuotaPausesUntilReset() {
+        String url = "http://quota.ratelimit.test/api";
+        Map<String, String> headers = Map.of("X-RateLimit-Remaining", "0", "X-RateLimit-Reset", "2");
+
+        assertEquals(2000, limiter.onResponse(url, 200, headers::get));
+        assertFalse(limiter.tryAcquire(url, null));
+        // 配额未用尽时不暂停
+        assertEquals(0, limiter.onResponse(url, 200, Map.of("X-RateLimit-Remaining", "5")::get));
+    }
+
+    @Test
+    void parsesRetryAfterSecondsAndDates() {
+        assertEquals(120_000, HostRateLimiter.parseRetryAfter(" 120 "));
+        assertEquals(0, HostRateLimiter.parseRetryAfter("-5"));
+        assertEquals(0, HostRateLimiter.parseRetryAfter(null));
+        assertEquals(0, HostRateLimiter.parseRetryAfter(""));
+        assertEquals(0, HostRateLimiter.parseRetryAfter("soon"));
+
+        String past = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().minusMinutes(1));
+        assertEquals(0, HostRateLimiter.parseRetryAfter(past));
+        String future = DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now().plusMinutes(1));
+        long millis = HostRateLimiter.parseRetryAfter(future);
+        assertTrue(millis > 55_000 && millis <= 60_000, () -> "Unexpected delay " + millis);
+    }
+
+    @Test
+    void parsesRateLimitResetAsSecondsOrEpoch() {
+        assertEquals(30_000, HostRateLimiter.parseRateLimitReset("30"));
+        assertEquals(0, HostRateLimiter.parseRateLimitReset(null));
+        assertEquals(0, HostRateLimiter.parseRateLimitReset("later"));
+
+        long epochSeconds = System.currentTimeMillis() / 1000 + 60;
+        long millis = HostRateLimiter.parseRateLimitReset(String.valueOf(epochSeconds));
+        assertTrue(millis > 55_000 && millis <= 60_000, () -> "Unexpected delay " + millis);
+        assertEquals(0, HostRateLimiter.parseRateLimitReset(String.valueOf(epochSeconds - 120)));
+    }
+}
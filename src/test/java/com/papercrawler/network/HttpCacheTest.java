@@ -0,0 +1,154 @@
+package com.papercrawler.network;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpCacheTest {
+    private static final String URL = "https://api.example.org/papers?page=1";
+
+    private Path cacheDir;
+
+    @BeforeEach
+    void createCacheDir() throws IOException {
+        cacheDir = Files.createTempDirectory("http-cache-test");
+    }
+
+    @AfterEach
+    void deleteCacheDir() throws IOException {
+        try (Stream<Path> files = Files.walk(cacheDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    void storedBodyIsServedWithItsValidators() {
+        HttpCache cache = new HttpCache(true, cacheDir, 1024 * 1024);
+
+        cache.store(URL, "\"v1\"", "Wed, 21 Oct 2015 07:28:00 GMT", "<feed>论文</feed>");
+
+        assertEquals(Optional.of("<feed>论文</feed>"), cache.readBody(URL));
+        Map<String, String> headers = validatorsOf(cache, URL);
+        assertEquals("\"v1\"", headers.get("If-None-Match"));
+        assertEquals("Wed, 21 Oct 2015 07:28:00 GMT", headers.get("If-Modified-Since"));
+    }
+
+    @Test
+    void responsesWithoutValidatorsAreNotCached() {
+        HttpCache cache = new HttpCache(true, cacheDir, 1024 * 1024);
+
+        cache.store(URL, null, null, "body");
+
+        assertFalse(cache.readBody(URL).isPresent());
+        assertTrue(validatorsOf(cache, URL).isEmpty());
+    }
+
+    @Test
+    void disabledCacheStoresNothing() {
+        HttpCache cache = new HttpCache(false, cacheDir, 1024 * 1024);
+
+        cache.store(URL, "\"v1\"", null, "body");
+
+        assertFalse(cache.readBody(URL).isPresent());
+        assertTrue(validatorsOf(cache, URL).isEmpty());
+    }
+
+    @Test
+    void invalidateRemovesEntry() {
+        HttpCache cache = new HttpCache(true, cacheDir, 1024 * 1024);
+        cache.store(URL, "\"v1\"", null, "body");
+
+        cache.invalidate(URL);
+
+        assertFalse(cache.readBody(URL).isPresent());
+        assertTrue(validatorsOf(cache, URL).isEmpty());
+    }
+
+    @Test
+    void teeCachesBodyWhileCallerReadsIt() throws IOException {
+        HttpCache cache = new HttpCache(true, cacheDir, 1024 * 1024);
+        byte[] body = "streamed body".getBytes(StandardCharsets.UTF_8);
+
+        HttpCache.CacheWriter writer = cache.openWriter(URL, "\"v2\"", null);
+        try (InputStream in = writer.tee(new ByteArrayInputStream(body))) {
+            assertEquals("streamed body", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        writer.commit();
+
+        assertEquals(Optional.of("streamed body"), cache.readBody(URL));
+    }
+
+    @Test
+    void abortedWriteLeavesNoEntry() throws IOException {
+        HttpCache cache = new HttpCache(true, cacheDir, 1024 * 1024);
+
+        HttpCache.CacheWriter writer = cache.openWriter(URL, "\"v2\"", null);
+        writer.write("partial".getBytes(StandardCharsets.UTF_8));
+        writer.abort();
+
+        assertFalse(cache.readBody(URL).isPresent());
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        // 每个响应体压缩后约600字节，容量只够两条
+        HttpCache cache = new HttpCache(true, cacheDir, 1500);
+        cache.store(URL + "a", "\"a\"", null, randomText(1));
+        cache.store(URL + "b", "\"b\"", null, randomText(2));
+        assertTrue(cache.readBody(URL + "a").isPresent());
+
+        cache.store(URL + "c", "\"c\"", null, randomText(3));
+
+        assertTrue(cache.readBody(URL + "a").isPresent());
+        assertFalse(cache.readBody(URL + "b").isPresent());
+        assertTrue(cache.readBody(URL + "c").isPresent());
+    }
+
+    @Test
+    void entriesSurviveRestart() {
+        new HttpCache(true, cacheDir, 1024 * 1024).store(URL, "\"v1\"", null, "persisted");
+
+        HttpCache reopened = new HttpCache(true, cacheDir, 1024 * 1024);
+
+        assertEquals(Optional.of("persisted"), reopened.readBody(URL));
+        assertEquals("\"v1\"", validatorsOf(reopened, URL).get("If-None-Match"));
+    }
+
+    private static Map<String, String> validatorsOf(HttpCache cache, String url) {
+        Map<String, String> headers = new LinkedHashMap<>();
+        cache.addValidators(url, headers::put);
+        return headers;
+    }
+
+    /**
+     * 固定种子的随机小写字母，gzip几乎无法压缩
+     */
+    private static String randomText(long seed) {
+        Random random = new Random(seed);
+        StringBuilder sb = new StringBuilder(1000);
+        for (int i = 0; i < 1000; i++) {
+            sb.append((char) ('a' + random.nextInt(26)));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,207 @@
+package com.papercrawler.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 请求由测试手动完成，回调在完成请求的线程上同步执行，结果可以立即断言
+ */
+class MultiGetTest {
+
+    @Test
+    void limitsRequestsInFlight() {
+        Fetches fetches = new Fetches();
+        Recorder recorder = subscribe(new MultiGet(urls(5), 2, fetches), Long.MAX_VALUE);
+
+        assertEquals(List.of("u0", "u1"), fetches.started());
+        fetches.complete("u1", "b1");
+        assertEquals(List.of("u0", "u1", "u2"), fetches.started());
+        fetches.complete("u0", "b0");
+        fetches.complete("u2", "b2");
+        fetches.complete("u3", "b3");
+        fetches.complete("u4", "b4");
+
+        // 按完成顺序发布
+        assertEquals(List.of("u1", "u0", "u2", "u3", "u4"), recorder.urls());
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void requestsNoMoreThanSubscriberDemand() {
+        Fetches fetches = new Fetches();
+        Recorder recorder = subscribe(new MultiGet(urls(3), 10, fetches), 1);
+
+        assertEquals(List.of("u0"), fetches.started());
+        fetches.complete("u0", "b0");
+        assertEquals(List.of("u0"), fetches.started());
+        assertEquals(List.of("u0"), recorder.urls());
+
+        recorder.subscription.request(2);
+        assertEquals(List.of("u0", "u1", "u2"), fetches.started());
+        assertFalse(recorder.completed);
+    }
+
+    @Test
+    void failedFetchesYieldEmptyBodies() {
+        Fetches fetches = new Fetches();
+        Function<String, CompletableFuture<Optional<String>>> fetch = url -> {
+            if (url.equals("u1")) {
+                throw new IllegalStateException("bad url");
+            }
+            return fetches.apply(url);
+        };
+        Recorder recorder = subscribe(new MultiGet(urls(3), 3, fetch), Long.MAX_VALUE);
+
+        fetches.fail("u0", new RuntimeException("connection reset"));
+        fetches.complete("u2", "b2");
+
+        assertEquals(List.of("u1", "u0", "u2"), recorder.urls());
+        assertEquals(List.of(Optional.empty(), Optional.empty(), Optional.of("b2")), recorder.bodies());
+        assertTrue(recorder.completed);
+    }
+
+    @Test
+    void emptyUrlListCompletesImmediately() {
+        Recorder recorder = subscribe(new MultiGet(urls(0), 2, new Fetches()), 1);
+
+        assertTrue(recorder.completed);
+        assertTrue(recorder.results.isEmpty());
+    }
+
+    @Test
+    void cancelStopsPublishingAndLaunching() {
+        Fetches fetches = new Fetches();
+        Recorder recorder = subscribe(new MultiGet(urls(4), 2, fetches), Long.MAX_VALUE);
+
+        recorder.subscription.cancel();
+        fetches.complete("u0", "b0");
+
+        assertEquals(List.of("u0", "u1"), fetches.started());
+        assertTrue(recorder.results.isEmpty());
+        assertFalse(recorder.completed);
+    }
+
+    @Test
+    void nonPositiveRequestIsAnError() {
+        Fetches fetches = new Fetches();
+        Recorder recorder = subscribe(new MultiGet(urls(2), 2, fetches), 0);
+
+        assertInstanceOf(IllegalArgumentException.class, recorder.error);
+        assertTrue(fetches.started().isEmpty());
+    }
+
+    @Test
+    void onlyOneSubscriberIsAllowed() {
+        MultiGet multiGet = new MultiGet(urls(1), 1, new Fetches());
+        subscribe(multiGet, 1);
+
+        Recorder second = subscribe(multiGet, 1);
+
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+
+    @Test
+    void maxInFlightMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> new MultiGet(urls(1), 0, new Fetches()));
+    }
+
+    private static Iterator<String> urls(int count) {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            urls.add("u" + i);
+        }
+        return urls.iterator();
+    }
+
+    private static Recorder subscribe(MultiGet multiGet, long initialDemand) {
+        Recorder recorder = new Recorder(initialDemand);
+        multiGet.subscribe(recorder);
+        return recorder;
+    }
+
+    /**
+     * 记录发起的请求，由测试决定每个请求何时以什么结果完成
+     */
+    private static class Fetches implements Function<String, CompletableFuture<Optional<String>>> {
+        private final Map<String, CompletableFuture<Optional<String>>> pending = new LinkedHashMap<>();
+
+        @Override
+        public CompletableFuture<Optional<String>> apply(String url) {
+            CompletableFuture<Optional<String>> future = new CompletableFuture<>();
+            pending.put(url, future);
+            return future;
+        }
+
+        List<String> started() {
+            return new ArrayList<>(pending.keySet());
+        }
+
+        void complete(String url, String body) {
+            pending.get(url).complete(Optional.of(body));
+        }
+
+        void fail(String url, Throwable error) {
+            pending.get(url).completeExceptionally(error);
+        }
+    }
+
+    private static class Recorder implements Flow.Subscriber<AsyncHttpClient.FetchResult> {
+        private final long initialDemand;
+        private final List<AsyncHttpClient.FetchResult> results = new ArrayList<>();
+        private Flow.Subscription subscription;
+        private Throwable error;
+        private boolean completed;
+
+        Recorder(long initialDemand) {
+            this.initialDemand = initialDemand;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(initialDemand);
+        }
+
+        @Override
+        public void onNext(AsyncHttpClient.FetchResult item) {
+            results.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+        }
+
+        List<String> urls() {
+            List<String> urls = new ArrayList<>();
+            results.forEach(result -> urls.add(result.getUrl()));
+            return urls;
+        }
+
+        List<Optional<String>> bodies() {
+            List<Optional<String>> bodies = new ArrayList<>();
+            results.forEach(result -> bodies.add(result.getBody()));
+            return bodies;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.papercrawler.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+
+    @Test
+    void executeSharesInFlightFuture() {
+        SingleFlight<String, String> flight = new SingleFlight<>(0, value -> true);
+        CompletableFuture<String> pending = new CompletableFuture<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> first = flight.execute("a", () -> {
+            loads.incrementAndGet();
+            return pending;
+        });
+        CompletableFuture<String> second = flight.execute("a", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        CompletableFuture<String> otherKey = flight.execute("b", () -> {
+            loads.incrementAndGet();
+            return CompletableFuture.completedFuture("b");
+        });
+
+        assertSame(first, second);
+        assertFalse(first.isDone());
+        assertEquals("b", otherKey.join());
+        pending.complete("a");
+        assertEquals("a", second.join());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void completedFlightIsNotReusedWithoutTtl() {
+        SingleFlight<String, String> flight = new SingleFlight<>(0, value -> true);
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("1", flight.call("a", () -> String.valueOf(loads.incrementAndGet())));
+        assertEquals("2", flight.call("a", () -> String.valueOf(loads.incrementAndGet())));
+    }
+
+    @Test
+    void ttlReusesOnlyCacheableResults() {
+        SingleFlight<String, String> flight = new SingleFlight<>(60_000, value -> !value.isEmpty());
+
+        assertEquals("x", flight.call("a", () -> "x"));
+        assertEquals("x", flight.call("a", () -> "y"));
+
+        assertEquals("", flight.call("b", () -> ""));
+        assertEquals("z", flight.call("b", () -> "z"));
+    }
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(0, value -> true);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger loads = new AtomicInteger();
+
+        CompletableFuture<String> leader = callAsync(flight, "a", () -> {
+            loads.incrementAndGet();
+            await(release);
+            return "shared";
+        });
+        awaitStatus(flight, "Loads: 1");
+        CompletableFuture<String> follower1 = callAsync(flight, "a", () -> "follower" + loads.incrementAndGet());
+        CompletableFuture<String> follower2 = callAsync(flight, "a", () -> "follower" + loads.incrementAndGet());
+        awaitStatus(flight, "Shared: 2");
+
+        release.countDown();
+        assertEquals("shared", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("shared", follower1.get(5, TimeUnit.SECONDS));
+        assertEquals("shared", follower2.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void errorInLoaderCompletesFollowers() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(60_000, value -> true);
+        CountDownLatch release = new CountDownLatch(1);
+        LoaderError error = new LoaderError();
+
+        CompletableFuture<String> leader = callAsync(flight, "a", () -> {
+            await(release);
+            throw error;
+        });
+        awaitStatus(flight, "Loads: 1");
+        CompletableFuture<String> follower = callAsync(flight, "a", () -> "unexpected");
+        awaitStatus(flight, "Shared: 1");
+
+        release.countDown();
+        assertSame(error, causeOf(leader));
+        assertSame(error, causeOf(follower));
+        // 失败的结果不在TTL内复用
+        assertEquals("retried", flight.call("a", () -> "retried"));
+    }
+
+    @Test
+    void runtimeExceptionReachesEveryCaller() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(0, value -> true);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException error = new IllegalStateException("load failed");
+
+        CompletableFuture<String> leader = callAsync(flight, "a", () -> {
+            await(release);
+            throw error;
+        });
+        awaitStatus(flight, "Loads: 1");
+        CompletableFuture<String> follower = callAsync(flight, "a", () -> "unexpected");
+        awaitStatus(flight, "Shared: 1");
+
+        release.countDown();
+        assertSame(error, causeOf(leader));
+        assertSame(error, causeOf(follower));
+    }
+
+    @Test
+    void executeCompletesFutureWhenLoaderThrows() throws Exception {
+        SingleFlight<String, String> flight = new SingleFlight<>(0, value -> true);
+        LoaderError error = new LoaderError();
+
+        assertThrows(LoaderError.class, () -> flight.execute("a", () -> {
+            throw error;
+        }));
+        assertEquals("next", flight.execute("a", () -> CompletableFuture.completedFuture("next"))
+                .get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void everyCallerGetsItsOwnReferenceAndResultIsReleasedOnce() throws Exception {
+        Resource resource = new Resource();
+        SingleFlight<String, Resource> flight = new SingleFlight<>(0, value -> true, Resource::retain, Resource::close);
+        CountDownLatch release = new CountDownLatch(1);
+
+        CompletableFuture<Resource> leader = callAsync(flight, "a", () -> {
+            await(release);
+            return resource;
+        });
+        awaitStatus(flight, "Loads: 1");
+        CompletableFuture<Resource> follower = callAsync(flight, "a", Resource::new);
+        awaitStatus(flight, "Shared: 1");
+
+        release.countDown();
+        leader.get(5, TimeUnit.SECONDS);
+        follower.get(5, TimeUnit.SECONDS);
+        // 加载得到的结果已交给release，只剩两个调用方的引用
+        assertEquals(2, resource.references.get());
+        assertEquals(1, resource.closes.get());
+    }
+
+    @Test
+    void cachedResultIsReleasedWhenExpiredEntryIsPurged() throws Exception {
+        Resource first = new Resource();
+        Resource second = new Resource();
+        SingleFlight<String, Resource> flight = new SingleFlight<>(1, value -> true, Resource::retain, Resource::close);
+
+        flight.call("a", () -> first);
+        assertEquals(0, first.closes.get());
+        Thread.sleep(5);
+        // 新key的加载会清理已过期的记录
+        flight.call("b", () -> second);
+        assertEquals(1, first.closes.get());
+        assertEquals(0, second.closes.get());
+    }
+
+    @Test
+    void failedLoadIsNotReleased() {
+        AtomicInteger releases = new AtomicInteger();
+        SingleFlight<String, String> flight = new SingleFlight<>(0, value -> true, UnaryOperator.identity(),
+                value -> releases.incrementAndGet());
+
+        assertThrows(IllegalStateException.class, () -> flight.call("a", () -> {
+            throw new IllegalStateException("load failed");
+        }));
+        assertEquals(0, releases.get());
+        assertEquals("ok", flight.call("a", () -> "ok"));
+        assertEquals(1, releases.get());
+    }
+
+    private static <V> CompletableFuture<V> callAsync(SingleFlight<String, V> flight, String key,
+                                                      Supplier<V> loader) {
+        CompletableFuture<V> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                result.complete(flight.call(key, loader));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
+
+    private static Throwable causeOf(CompletableFuture<?> future) throws InterruptedException, TimeoutException {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            return e.getCause();
+        }
+        throw new AssertionError("Expected the call to fail");
+    }
+
+    /**
+     * 等待调用方进入预期状态（leader开始加载或follower加入等待）
+     */
+    private static void awaitStatus(SingleFlight<?, ?> flight, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!flight.getStatus().contains(expected)) {
+            assertTrue(System.nanoTime() < deadline, () -> "Timed out waiting for " + expected);
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 模拟带引用计数的资源：retain增加引用，close释放一个引用
+     */
+    private static class Resource {
+        private final AtomicInteger references = new AtomicInteger(1);
+        private final AtomicInteger closes = new AtomicInteger();
+
+        Resource retain() {
+            references.incrementAndGet();
+            return this;
+        }
+
+        void close() {
+            references.decrementAndGet();
+            closes.incrementAndGet();
+        }
+    }
+
+    private static class LoaderError extends Error {
+        private static final long serialVersionUID = 1L;
+    }
+}
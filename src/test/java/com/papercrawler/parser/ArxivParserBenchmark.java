@@ -0,0 +1,100 @@
+package com.papercrawler.parser;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * arXiv解析的StAX与Jsoup对比基准，不属于单元测试，需手动运行：
+ * java -cp target/test-classes:target/classes:依赖 com.papercrawler.parser.ArxivParserBenchmark [feed.xml] [条目数]
+ * 未指定文件时生成与arXiv API响应结构相同的合成页面；每种解析方式先预热再计时，
+ * 输出每页耗时和每页分配的字节数（JVM支持线程分配统计时）
+ */
+public final class ArxivParserBenchmark {
+    private static final int WARMUP_ITERATIONS = 30;
+    private static final int MEASURED_ITERATIONS = 50;
+
+    private ArxivParserBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        byte[] feed = args.length > 0 && !args[0].isEmpty()
+                ? Files.readAllBytes(Paths.get(args[0]))
+                : syntheticFeed(args.length > 1 ? Integer.parseInt(args[1]) : 2000);
+        System.out.printf("Feed: %d bytes%n", feed.length);
+
+        // 交替运行两轮，第二轮的结果受JIT和GC状态的影响更小
+        for (int round = 0; round < 2; round++) {
+            run("jsoup", new ArxivParser(false), feed);
+            run("stax", new ArxivParser(true), feed);
+        }
+    }
+
+    private static void run(String name, ArxivParser parser, byte[] feed) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            parser.parsePapers(new ByteArrayInputStream(feed));
+        }
+
+        long allocatedBefore = allocatedBytes();
+        long startNanos = System.nanoTime();
+        long papers = 0;
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            papers += parser.parsePapers(new ByteArrayInputStream(feed)).size();
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        long allocated = allocatedBytes() - allocatedBefore;
+
+        System.out.printf("%-5s: %.1f ms/page, %d entries/page, %s%n", name,
+                elapsedNanos / 1e6 / MEASURED_ITERATIONS, papers / MEASURED_ITERATIONS,
+                allocatedBefore < 0 ? "allocation not measured"
+                        : String.format("%.1f MB allocated/page", allocated / 1e6 / MEASURED_ITERATIONS));
+    }
+
+    /**
+     * 当前线程累计分配的字节数，JVM不支持时返回-1
+     */
+    private static long allocatedBytes() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (threads instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean hotspot = (com.sun.management.ThreadMXBean) threads;
+            if (hotspot.isThreadAllocatedMemorySupported() && hotspot.isThreadAllocatedMemoryEnabled()) {
+                return hotspot.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+
+    private static byte[] syntheticFeed(int entries) {
+        StringBuilder sb = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<feed xmlns=\"http://www.w3.org/2005/Atom\" xmlns:arxiv=\"http://arxiv.org/schemas/atom\">\n")
+                .append("  <title type=\"html\">ArXiv Query: search_query=all</title>\n");
+        for (int i = 0; i < entries; i++) {
+            String id = String.format("2301.%05dv1", i);
+            sb.append("  <entry>\n")
+                    .append("    <id>http://arxiv.org/abs/").append(id).append("</id>\n")
+                    .append(String.format("    <updated>2023-01-%02dT12:34:56Z</updated>%n", i % 28 + 1))
+                    .append(String.format("    <published>2023-01-%02dT10:00:00Z</published>%n", i % 28 + 1))
+                    .append("    <title>A   study of\n      quantum   thing ").append(i).append("</title>\n")
+                    .append("    <summary>  We present   a long abstract\n  with     whitespace and &amp; entities.");
+            for (int j = 0; j < 40; j++) {
+                sb.append(" lorem ipsum");
+            }
+            sb.append("\n    </summary>\n")
+                    .append("    <author><name>Alice Smith</name></author>\n")
+                    .append("    <author><name>Bob Jones</name><arxiv:affiliation>MIT</arxiv:affiliation></author>\n")
+                    .append("    <arxiv:comment>10 pages</arxiv:comment>\n")
+                    .append("    <link href=\"http://arxiv.org/abs/").append(id)
+                    .append("\" rel=\"alternate\" type=\"text/html\"/>\n")
+                    .append("    <link title=\"pdf\" href=\"http://arxiv.org/pdf/").append(id)
+                    .append("\" rel=\"related\" type=\"application/pdf\"/>\n")
+                    .append("    <arxiv:primary_category term=\"cond-mat.mtrl-sci\"/>\n")
+                    .append("    <category term=\"cond-mat.mtrl-sci\"/>\n")
+                    .append("  </entry>\n");
+        }
+        return sb.append("</feed>\n").toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
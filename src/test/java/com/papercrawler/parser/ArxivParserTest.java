@@ -0,0 +1,61 @@
+package com.papercrawler.parser;
+
+import com.papercrawler.model.Paper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ArxivParserTest {
+    private static final String FEED = "arxiv-feed.xml";
+    private static final String EXPECTED = "arxiv-feed.expected";
+
+    @Test
+    void staxMatchesOriginalOutput() {
+        ArxivParser parser = new ArxivParser(true);
+        assertEquals(Fixtures.expected(EXPECTED), Fixtures.describeAll(parser.parsePapers(Fixtures.read(FEED))));
+        assertEquals(Fixtures.expected(EXPECTED), Fixtures.describeAll(parser.parsePapers(Fixtures.open(FEED))));
+    }
+
+    @Test
+    void jsoupMatchesOriginalOutput() {
+        ArxivParser parser = new ArxivParser(false);
+        assertEquals(Fixtures.expected(EXPECTED), Fixtures.describeAll(parser.parsePapers(Fixtures.read(FEED))));
+        assertEquals(Fixtures.expected(EXPECTED), Fixtures.describeAll(parser.parsePapers(Fixtures.open(FEED))));
+    }
+
+    @Test
+    void staxExtractsSameFieldsAsJsoup() {
+        String feed = Fixtures.read(FEED);
+        assertEquals(Fixtures.describeAll(new ArxivParser(false).parsePapers(feed)),
+                Fixtures.describeAll(new ArxivParser(true).parsePapers(feed)));
+    }
+
+    @Test
+    void pushDeliversSamePapersAsList() {
+        for (boolean streaming : new boolean[]{true, false}) {
+            ArxivParser parser = new ArxivParser(streaming);
+            List<Paper> pushed = new ArrayList<>();
+            int count = parser.parsePapers(Fixtures.open(FEED), pushed::add);
+
+            assertEquals(pushed.size(), count);
+            assertEquals(Fixtures.describeAll(parser.parsePapers(Fixtures.read(FEED))), Fixtures.describeAll(pushed));
+        }
+    }
+
+    @Test
+    void consumerExceptionStopsParsing() {
+        List<Paper> seen = new ArrayList<>();
+        IllegalStateException error = assertThrows(IllegalStateException.class, () ->
+                new ArxivParser(true).parsePapers(Fixtures.open(FEED), paper -> {
+                    seen.add(paper);
+                    throw new IllegalStateException("stop");
+                }));
+
+        assertEquals("stop", error.getMessage());
+        assertEquals(1, seen.size());
+    }
+}
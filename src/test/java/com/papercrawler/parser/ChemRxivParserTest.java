@@ -0,0 +1,31 @@
+package com.papercrawler.parser;
+
+import com.papercrawler.model.Paper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChemRxivParserTest {
+    private static final String PAGE = "chemrxiv-page.json";
+    private static final String EXPECTED = "chemrxiv-page.expected";
+
+    private final ChemRxivParser parser = new ChemRxivParser();
+
+    @Test
+    void tokenStreamMatchesOriginalTreeOutput() {
+        assertEquals(Fixtures.expected(EXPECTED), Fixtures.describeAll(parser.parsePapers(Fixtures.read(PAGE))));
+        assertEquals(Fixtures.expected(EXPECTED), Fixtures.describeAll(parser.parsePapers(Fixtures.open(PAGE))));
+    }
+
+    @Test
+    void pushDeliversSamePapersAsList() {
+        List<Paper> pushed = new ArrayList<>();
+        int count = parser.parsePapers(Fixtures.open(PAGE), pushed::add);
+
+        assertEquals(pushed.size(), count);
+        assertEquals(Fixtures.expected(EXPECTED), Fixtures.describeAll(pushed));
+    }
+}
@@ -0,0 +1,71 @@
+package com.papercrawler.parser;
+
+import com.papercrawler.model.Author;
+import com.papercrawler.model.Paper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 解析器测试使用的样例响应
+ * fixtures/*.expected由改为流式解析之前的解析器（Jsoup/JsonNode树、正则折叠空白、DateTimeFormatter）生成，
+ * 每行一篇论文，字段以制表符分隔，见describe
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    static InputStream open(String name) {
+        InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name);
+        if (in == null) {
+            throw new IllegalArgumentException("Fixture not found: " + name);
+        }
+        return in;
+    }
+
+    static String read(String name) {
+        try (InputStream in = open(name)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static List<String> expected(String name) {
+        return Arrays.asList(read(name).split("\n"));
+    }
+
+    /**
+     * 论文的全部字段，用于逐字段比较新旧解析结果
+     */
+    static String describe(Paper paper) {
+        String authors = "null";
+        if (paper.getAuthors() != null) {
+            List<String> names = new ArrayList<>();
+            for (Author author : paper.getAuthors()) {
+                names.add(author.getName() + "/" + author.getAffiliation() + "/" + author.getOrcid());
+            }
+            authors = String.join("; ", names);
+        }
+        return String.join("\t", String.valueOf(paper.getId()), String.valueOf(paper.getTitle()),
+                String.valueOf(paper.getSummary()), authors, String.valueOf(paper.getCategories()),
+                String.valueOf(paper.getPublishedDate()), String.valueOf(paper.getUpdatedDate()),
+                String.valueOf(paper.getPdfUrl()), String.valueOf(paper.getDoi()), String.valueOf(paper.getSource()),
+                String.valueOf(paper.getVersion()), String.valueOf(paper.getJournalRef()),
+                String.valueOf(paper.getComment()));
+    }
+
+    static List<String> describeAll(List<Paper> papers) {
+        List<String> lines = new ArrayList<>(papers.size());
+        for (Paper paper : papers) {
+            lines.add(describe(paper));
+        }
+        return lines;
+    }
+}
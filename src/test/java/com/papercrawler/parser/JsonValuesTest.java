@@ -0,0 +1,97 @@
+package com.papercrawler.parser;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 在token流上读取的值必须与原来JsonNode的asText()/asInt()一致，对象和数组被整体跳过
+ */
+class JsonValuesTest {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final JsonFactory FACTORY = new JsonFactory();
+
+    private static final String[] VALUES = {
+            "\"text\"", "\"  spaced \\n\\t text \"", "\"\"", "\"42\"", "\" 42 \"", "\"-7\"", "\"4.5\"", "\"abc\"",
+            "\"2147483648\"", "\"null\"", "0", "123", "-7", "12345678901", "2147483648", "2.9", "-2.5", "1e3",
+            "1.0E20", "0.1", "true", "false", "null", "{}", "{\"a\":1}", "[]", "[1,[2,{\"b\":3}]]"
+    };
+
+    @Test
+    void asTextMatchesJsonNode() throws IOException {
+        for (String value : VALUES) {
+            try (JsonParser parser = parserAt(value)) {
+                assertEquals(node(value).asText(), JsonValues.asText(parser), value);
+                assertNextFieldIsAfter(parser, value);
+            }
+        }
+    }
+
+    @Test
+    void collapsedTextMatchesJsonNode() throws IOException {
+        for (String value : VALUES) {
+            try (JsonParser parser = parserAt(value)) {
+                assertEquals(node(value).asText().replaceAll("\\s+", " ").trim(), JsonValues.collapsedText(parser),
+                        value);
+                assertNextFieldIsAfter(parser, value);
+            }
+        }
+    }
+
+    @Test
+    void asIntMatchesJsonNode() throws IOException {
+        for (String value : VALUES) {
+            try (JsonParser parser = parserAt(value)) {
+                assertEquals(node(value).asInt(-1), JsonValues.asInt(parser, -1), value);
+                assertNextFieldIsAfter(parser, value);
+            }
+        }
+    }
+
+    @Test
+    void textOrNullSkipsNonStrings() throws IOException {
+        for (String value : VALUES) {
+            try (JsonParser parser = parserAt(value)) {
+                JsonNode node = node(value);
+                if (node.isTextual()) {
+                    assertEquals(node.asText(), JsonValues.textOrNull(parser), value);
+                } else {
+                    assertNull(JsonValues.textOrNull(parser), value);
+                }
+                assertNextFieldIsAfter(parser, value);
+            }
+        }
+    }
+
+    private static JsonNode node(String value) throws IOException {
+        return MAPPER.readTree(document(value)).get("v");
+    }
+
+    /**
+     * 返回位于字段v的值上的解析器
+     */
+    private static JsonParser parserAt(String value) throws IOException {
+        JsonParser parser = FACTORY.createParser(document(value));
+        assertEquals(JsonToken.START_OBJECT, parser.nextToken());
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken());
+        parser.nextToken();
+        return parser;
+    }
+
+    private static String document(String value) {
+        return "{\"v\":" + value + ",\"after\":1}";
+    }
+
+    private static void assertNextFieldIsAfter(JsonParser parser, String value) throws IOException {
+        assertEquals(JsonToken.FIELD_NAME, parser.nextToken(), value);
+        assertEquals("after", parser.getCurrentName(), value);
+    }
+}
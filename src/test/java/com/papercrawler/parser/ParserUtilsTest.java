@@ -0,0 +1,150 @@
+package com.papercrawler.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * 单遍空白折叠和固定格式日期解码必须与原来的正则和DateTimeFormatter逐一等价
+ */
+class ParserUtilsTest {
+    // 原解析器使用的格式
+    private static final DateTimeFormatter ARXIV_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss'Z'");
+    private static final DateTimeFormatter CHEMRXIV_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+
+    private static final String[] ARXIV_EDGE_CASES = {
+            "2023-01-01T12:34:56Z", "2024-02-29T00:00:00Z", "2000-02-29T00:00:00Z", "1900-02-29T00:00:00Z",
+            // 越界的日期由SMART解析调整到月末，24:00:00为次日零点
+            "2023-02-29T00:00:00Z", "2023-02-30T00:00:00Z", "2023-04-31T10:00:00Z", "2023-01-01T24:00:00Z",
+            "2023-12-31T24:00:00Z", "2023-01-01T23:59:60Z", "2023-01-01T24:00:01Z", "0000-01-01T00:00:00Z",
+            "2023-00-10T00:00:00Z", "2023-13-01T00:00:00Z", "2023-01-32T00:00:00Z", "2023-01-00T00:00:00Z",
+            "12023-01-01T00:00:00Z", "+2023-01-01T00:00:00Z", "2023-1-01T00:00:00Z", "2023-01-01T12:34:56",
+            "2023-01-01 12:34:56Z", "2023-01-01T12:34:5xZ", "\uFF12023-01-01T00:00:00Z", "", "not a date"
+    };
+
+    private static final String[] CHEMRXIV_EDGE_CASES = {
+            "2023-01-01T12:34:56.789Z", "2023-01-01T12:34:56.000Z", "2023-01-01T12:34:56.78Z",
+            "2023-01-01T12:34:56.7890Z", "2023-01-01T12:34:56,789Z", "2023-02-30T12:34:56.789Z",
+            "2023-01-01T24:00:00.000Z", "2023-01-01T24:00:00.001Z", "2023-01-01T12:34:56.78xZ", "null"
+    };
+
+    private static final String[] BIORXIV_EDGE_CASES = {
+            "2023-01-01", "2024-02-29", "2023-02-29", "2023-02-30", "0000-01-01", "2023-13-01", "2023-01-32",
+            "20230101", "2023-1-1", "+12023-01-01", "2023-01-01T00:00:00Z", "bad", ""
+    };
+
+    @Test
+    void collapseWhitespaceMatchesRegex() {
+        String[] cases = {
+                "", " ", "  ", "a", "a b", " a", "a ", "a  b", "a\tb", "a\u000Bb", "a\fb", "a \n b", " x\r\n y \t",
+                "\u0001a\u0002", "a \u0001 b", " \u0001\t a", "a\t\u0001", "a\u00A0b", "a \u2003 b", "\u001F",
+                "already normal"
+        };
+        for (String text : cases) {
+            assertCollapsesLikeRegex(text);
+        }
+
+        // 混合各种空白、控制字符和非ASCII空白的随机字符串
+        char[] alphabet = {
+                'a', 'b', ' ', ' ', '\t', '\n', '\u000B', '\f', '\r', '\u0001', '\u001F', '\u00A0', '\u2003'
+        };
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            char[] chars = new char[random.nextInt(12)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = alphabet[random.nextInt(alphabet.length)];
+            }
+            assertCollapsesLikeRegex(new String(chars));
+        }
+    }
+
+    @Test
+    void collapseWhitespaceReturnsNormalizedStringUnchanged() {
+        String text = "no extra whitespace";
+        assertSame(text, ParserUtils.collapseWhitespace(text));
+    }
+
+    @Test
+    void arxivDateMatchesFormatter() {
+        for (String text : arxivSamples()) {
+            assertDecodesLikeFormatter(text, ParserUtils.ARXIV_DATE,
+                    value -> LocalDateTime.parse(value, ARXIV_FORMATTER));
+        }
+    }
+
+    @Test
+    void chemrxivDateMatchesFormatter() {
+        List<String> samples = new ArrayList<>();
+        for (String text : arxivSamples()) {
+            if (text.length() == 20 && text.endsWith("Z")) {
+                samples.add(text.substring(0, 19) + ".123Z");
+            }
+        }
+        samples.addAll(List.of(CHEMRXIV_EDGE_CASES));
+        for (String text : samples) {
+            assertDecodesLikeFormatter(text, ParserUtils.CHEMRXIV_DATE,
+                    value -> LocalDateTime.parse(value, CHEMRXIV_FORMATTER));
+        }
+    }
+
+    @Test
+    void biorxivDateMatchesFormatter() {
+        List<String> samples = new ArrayList<>();
+        for (LocalDate day = LocalDate.of(1999, 1, 1); day.getYear() < 2002; day = day.plusDays(1)) {
+            samples.add(day.toString());
+        }
+        samples.addAll(List.of(BIORXIV_EDGE_CASES));
+        for (String text : samples) {
+            assertDecodesLikeFormatter(text, ParserUtils.BIORXIV_DATE,
+                    value -> LocalDateTime.parse(value + "T00:00:00Z", DateTimeFormatter.ISO_DATE_TIME));
+        }
+    }
+
+    /**
+     * 两个完整年份（含闰年）的每一天配合不同时刻，以及边界和非法输入
+     */
+    private static List<String> arxivSamples() {
+        List<String> samples = new ArrayList<>();
+        int i = 0;
+        for (LocalDate day = LocalDate.of(2023, 1, 1); day.getYear() < 2025; day = day.plusDays(1), i++) {
+            samples.add(String.format("%sT%02d:%02d:%02dZ", day, i % 24, (i * 7) % 60, (i * 13) % 60));
+        }
+        samples.addAll(List.of(ARXIV_EDGE_CASES));
+        return samples;
+    }
+
+    private static void assertCollapsesLikeRegex(String text) {
+        String expected = text.replaceAll("\\s+", " ").trim();
+        assertEquals(expected, ParserUtils.collapseWhitespace(text), () -> "input [" + text + "]");
+        char[] padded = ("##" + text + "##").toCharArray();
+        assertEquals(expected, ParserUtils.collapseWhitespace(padded, 2, text.length()), () -> "input [" + text + "]");
+    }
+
+    /**
+     * 结果或异常（类型和消息）与原格式一致；重复解码走缓存，结果不变
+     */
+    private static void assertDecodesLikeFormatter(String text, ParserUtils.DateDecoder decoder,
+                                                   Function<String, LocalDateTime> formatter) {
+        String expected = outcome(formatter, text);
+        assertEquals(expected, outcome(decoder::decode, text), () -> "input [" + text + "]");
+        assertEquals(expected, outcome(decoder::decode, text), () -> "cached input [" + text + "]");
+    }
+
+    private static String outcome(Function<String, LocalDateTime> parse, String text) {
+        try {
+            return String.valueOf(parse.apply(text));
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+}